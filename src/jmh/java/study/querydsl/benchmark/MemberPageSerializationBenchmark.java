@@ -0,0 +1,65 @@
+package study.querydsl.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import study.querydsl.domain.member.dto.request.CountMode;
+import study.querydsl.domain.member.dto.response.MemberCompactPageResponse;
+import study.querydsl.domain.member.dto.response.MemberTeamDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * /v3/members 응답 직렬화 비교. pageImpl 은 현재 응답(PageImpl + BeanSerializer), compact 는 MemberCompactPageResponse 이다.
+ * <p>
+ * 시간은 페이지 하나 기준이므로 rows 로 나누면 행당 ns 가 된다.
+ * 응답 크기(bytes, bytes/row)는 setup 에서 한 번 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class MemberPageSerializationBenchmark {
+
+    @Param({"20", "1000"})
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private Page<MemberTeamDto> page;
+    private MemberCompactPageResponse compact;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        // Spring Boot 가 MVC 에 등록하는 것과 같은 설정
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<MemberTeamDto> content = IntStream.range(0, rows)
+                .mapToObj(i -> new MemberTeamDto((long) i, "member" + i, i % 100, (long) i % 10, "team" + i % 10))
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(0, rows), 1_000_000);
+        compact = MemberCompactPageResponse.from(page, CountMode.EXACT);
+
+        int pageBytes = objectMapper.writeValueAsBytes(page).length;
+        int compactBytes = objectMapper.writeValueAsBytes(compact).length;
+        System.out.printf("%nrows=%d pageImpl=%d bytes (%.1f/row) compact=%d bytes (%.1f/row)%n",
+                rows, pageBytes, (double) pageBytes / rows, compactBytes, (double) compactBytes / rows);
+    }
+
+    @Benchmark
+    public byte[] pageImpl() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] compact() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(compact);
+    }
+}
@@ -0,0 +1,73 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.domain.member.application.MemberBulkService;
+import study.querydsl.domain.member.dao.MemberJpaRepository;
+import study.querydsl.domain.member.dao.MemberRepository;
+import study.querydsl.domain.member.dto.request.MemberSearchCondition;
+import study.querydsl.domain.member.dto.response.MemberTeamDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 SQL 을 만드는 두 경로의 요청당 CPU / 할당량 비교.
+ * <p>
+ * templated 는 shape 별로 캐시된 JPQL 에 파라미터만 바인딩하고 (MemberRepositoryImpl.search),
+ * querydsl 은 매 호출마다 메타데이터를 만들고 직렬화한다 (MemberJpaRepository.searchByWhereParam).
+ * 데이터는 작게 두어 쿼리 실행보다 쿼리 준비 비용이 드러나도록 한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MemberQueryTemplateBenchmark {
+
+    // username, teamName + age 범위, 전체 (MemberSearchBenchmark 의 shape 비트마스크)
+    @Param({"1", "14", "15"})
+    private int shape;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberJpaRepository memberJpaRepository;
+
+    private MemberSearchCondition condition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.profiles.active=bench",
+                        "--spring.datasource.url=jdbc:h2:mem:bench-template;DB_CLOSE_DELAY=-1",
+                        "--logging.level.org.hibernate.SQL=warn",
+                        "--member.search.cache.enabled=false");
+
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+
+        context.getBean(MemberBulkService.class).generate(10, 1000);
+        condition = MemberSearchBenchmark.conditionOf(shape, 500, 10);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> templated() {
+        return memberRepository.search(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> querydsl() {
+        return memberJpaRepository.searchByWhereParam(condition);
+    }
+}
@@ -0,0 +1,111 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.domain.member.application.MemberBulkService;
+import study.querydsl.domain.member.dao.MemberJpaRepository;
+import study.querydsl.domain.member.dao.MemberRepository;
+import study.querydsl.domain.member.dto.request.MemberSearchCondition;
+import study.querydsl.domain.member.dto.response.MemberTeamDto;
+import study.querydsl.domain.member.dto.response.MemberTeamDtoV2;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberRepositoryImpl / MemberJpaRepository 검색 경로 벤치마크.
+ * <p>
+ * {@code ./gradlew jmh} 로 실행하며, 처리량(thrpt)과 지연 분포(sample, p99 포함),
+ * GC 프로파일러의 할당량(gc.alloc.rate.norm)을 predicate 조합별로 측정한다.
+ * shape 는 MemberIndexAdvisorTest 와 같은 비트마스크(username / teamName / ageGoe / ageLoe)로 16 가지 조합 전부다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MemberSearchBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int memberCount;
+
+    @Param({"100"})
+    private int teamCount;
+
+    @Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15"})
+    private int shape;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberJpaRepository memberJpaRepository;
+
+    private MemberSearchCondition condition;
+    private final Pageable pageable = PageRequest.of(0, 20);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.profiles.active=bench",
+                        "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "--logging.level.org.hibernate.SQL=warn",
+                        "--member.search.cache.enabled=false");
+
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+
+        context.getBean(MemberBulkService.class).generate(teamCount, memberCount);
+        condition = conditionOf(shape, memberCount / 2, teamCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> search() {
+        return memberRepository.search(condition);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPage() {
+        return memberRepository.searchPage(condition, pageable);
+    }
+
+    @Benchmark
+    public Slice<MemberTeamDtoV2> searchSlice() {
+        return memberRepository.searchSlice(condition, null, pageable.getPageSize());
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByBuilder() {
+        return memberJpaRepository.searchByBuilder(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByWhereParam() {
+        return memberJpaRepository.searchByWhereParam(condition);
+    }
+
+    /**
+     * MemberBulkService.generate 규칙에 맞춰 x 번째 회원이 항상 결과에 포함되도록 shape 의 조건을 만든다.
+     */
+    static MemberSearchCondition conditionOf(int shape, int x, int teamCount) {
+        int age = x % 100;
+        return MemberSearchCondition.of(
+                (shape & MemberSearchCondition.USERNAME) != 0 ? "member" + x : null,
+                (shape & MemberSearchCondition.TEAM_NAME) != 0 ? "team" + (x % teamCount) : null,
+                (shape & MemberSearchCondition.AGE_GOE) != 0 ? age - 5 : null,
+                (shape & MemberSearchCondition.AGE_LOE) != 0 ? age + 5 : null);
+    }
+}
@@ -0,0 +1,81 @@
+package study.querydsl.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 테스트 옵션. {@code --name=value} 형식으로 받고, 모르는 옵션은 애플리케이션 인자로 넘긴다.
+ * <pre>
+ * --members=100000 --teams=100 --concurrency=16 --warmup=10s --duration=30s
+ * --mix=V2:1,V3:2,V4:2 --page-size=20 --scroll-depth=5 --seed=42 --report=build/reports/load-test/report.txt
+ * </pre>
+ */
+record LoadTestOptions(
+        int members,
+        int teams,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<Endpoint, Integer> mix,
+        int pageSize,
+        int scrollDepth,
+        long seed,
+        Path report,
+        List<String> applicationArgs) {
+
+    private static final List<String> KNOWN = List.of(
+            "members", "teams", "concurrency", "warmup", "duration",
+            "mix", "page-size", "scroll-depth", "seed", "report");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = arg.startsWith("--") && separator > 0 ? arg.substring(2, separator) : null;
+            if (name != null && KNOWN.contains(name)) {
+                options.put(name, arg.substring(separator + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+
+        return new LoadTestOptions(
+                Integer.parseInt(options.getOrDefault("members", "100000")),
+                Integer.parseInt(options.getOrDefault("teams", "100")),
+                Integer.parseInt(options.getOrDefault("concurrency", "16")),
+                duration(options.getOrDefault("warmup", "10s")),
+                duration(options.getOrDefault("duration", "30s")),
+                mix(options.getOrDefault("mix", "V2:1,V3:1,V4:1")),
+                Integer.parseInt(options.getOrDefault("page-size", "20")),
+                Integer.parseInt(options.getOrDefault("scroll-depth", "5")),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Path.of(options.getOrDefault("report", "build/reports/load-test/report.txt")),
+                List.copyOf(applicationArgs));
+    }
+
+    private static Duration duration(String value) {
+        return Duration.parse("PT" + value.toUpperCase());
+    }
+
+    private static Map<Endpoint, Integer> mix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String entry : value.split(",")) {
+            String[] weight = entry.trim().split(":");
+            mix.put(Endpoint.valueOf(weight[0].toUpperCase()), Integer.parseInt(weight[1]));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("mix 의 가중치 합은 0 보다 커야 합니다: " + value);
+        }
+        return mix;
+    }
+
+    enum Endpoint {
+        V2, V3, V4
+    }
+}
@@ -0,0 +1,91 @@
+package study.querydsl.loadtest;
+
+import org.HdrHistogram.Histogram;
+import study.querydsl.loadtest.LoadTestOptions.Endpoint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 엔드포인트별 처리량과 지연 백분위(마이크로초 기록, 밀리초 출력), 전체 지연 분포를 텍스트로 남긴다.
+ */
+class LoadTestReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadTestOptions options;
+    private final long elapsedNanos;
+    private final Map<Endpoint, Result> results;
+
+    LoadTestReport(LoadTestOptions options, long elapsedNanos, Map<Endpoint, Result> results) {
+        this.options = options;
+        this.elapsedNanos = elapsedNanos;
+        this.results = results;
+    }
+
+    void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8)) {
+            out.printf("# member load test %s%n", LocalDateTime.now());
+            out.printf("# members=%d teams=%d concurrency=%d warmup=%s duration=%s mix=%s pageSize=%d scrollDepth=%d seed=%d%n",
+                    options.members(), options.teams(), options.concurrency(), options.warmup(),
+                    options.duration(), options.mix(), options.pageSize(), options.scrollDepth(), options.seed());
+            out.println();
+            out.print(summary());
+
+            results.forEach((endpoint, result) -> {
+                out.println();
+                out.printf("## %s latency distribution (ms)%n", endpoint);
+                result.histogram().outputPercentileDistribution(out, 5, MICROS_PER_MILLI);
+            });
+        }
+        Files.write(path, buffer.toByteArray());
+    }
+
+    String summary() {
+        StringBuilder summary = new StringBuilder(String.format(
+                "%-8s %10s %10s %8s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "mean", "p50", "p90", "p99", "p99.9", "max"));
+
+        long totalRequests = 0;
+        for (Map.Entry<Endpoint, Result> entry : results.entrySet()) {
+            Histogram histogram = entry.getValue().histogram();
+            totalRequests += histogram.getTotalCount();
+            summary.append(String.format(
+                    "%-8s %10d %10.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(),
+                    histogram.getTotalCount(),
+                    perSecond(histogram.getTotalCount()),
+                    entry.getValue().errors(),
+                    histogram.getMean() / MICROS_PER_MILLI,
+                    millis(histogram, 50),
+                    millis(histogram, 90),
+                    millis(histogram, 99),
+                    millis(histogram, 99.9),
+                    histogram.getMaxValue() / MICROS_PER_MILLI));
+        }
+        summary.append(String.format("%-8s %10d %10.1f%n", "total", totalRequests, perSecond(totalRequests)));
+        return summary.toString();
+    }
+
+    private double perSecond(long count) {
+        return count * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    record Result(Histogram histogram, long errors) {
+    }
+}
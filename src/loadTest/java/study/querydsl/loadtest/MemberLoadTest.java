@@ -0,0 +1,229 @@
+package study.querydsl.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.loadtest.LoadTestOptions.Endpoint;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * /v2, /v3, /v4 members 엔드포인트 부하 테스트.
+ * <p>
+ * load-test 프로필로 in-memory H2 에 데이터를 적재한 애플리케이션을 띄우고,
+ * concurrency 개의 워커가 요청 비율(mix)에 따라 쉬지 않고 요청을 보낸다 (closed loop).
+ * warmup 동안의 측정값은 버리고, 이후 duration 동안의 지연 분포(HdrHistogram)와 처리량을 report 파일에 기록한다.
+ * <p>
+ * {@code ./gradlew loadTest -PloadTestArgs="--members=1000000 --concurrency=32"} 로 실행한다.
+ */
+@Slf4j
+public class MemberLoadTest {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final LoadTestOptions options;
+    private final ExecutorService httpExecutor;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private final Endpoint[] weightedEndpoints;
+
+    private volatile boolean running = true;
+    private String baseUrl;
+
+    MemberLoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.httpExecutor = Executors.newFixedThreadPool(options.concurrency());
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpExecutor)
+                .build();
+
+        List<Endpoint> weighted = new ArrayList<>();
+        options.mix().forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(endpoint);
+            }
+            recorders.put(endpoint, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(endpoint, new LongAdder());
+        });
+        this.weightedEndpoints = weighted.toArray(Endpoint[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        new MemberLoadTest(options).run();
+    }
+
+    void run() throws InterruptedException, IOException {
+        try (ConfigurableApplicationContext context = start()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+
+            ExecutorService workers = Executors.newFixedThreadPool(options.concurrency());
+            CountDownLatch finished = new CountDownLatch(options.concurrency());
+            for (int i = 0; i < options.concurrency(); i++) {
+                Random random = new Random(options.seed() + i);
+                workers.execute(() -> {
+                    try {
+                        new Worker(random).loop();
+                    } finally {
+                        finished.countDown();
+                    }
+                });
+            }
+
+            log.info("Warming up for {}", options.warmup());
+            Thread.sleep(options.warmup().toMillis());
+            // warmup 동안 쌓인 값은 버린다.
+            recorders.values().forEach(Recorder::reset);
+            errors.values().forEach(LongAdder::reset);
+
+            log.info("Measuring for {} with {} workers", options.duration(), options.concurrency());
+            long start = System.nanoTime();
+            Thread.sleep(options.duration().toMillis());
+            Map<Endpoint, LoadTestReport.Result> results = new EnumMap<>(Endpoint.class);
+            recorders.forEach((endpoint, recorder) -> results.put(
+                    endpoint,
+                    new LoadTestReport.Result(
+                            recorder.getIntervalHistogram(), errors.get(endpoint).sum())));
+            long elapsedNanos = System.nanoTime() - start;
+
+            running = false;
+            workers.shutdown();
+            finished.await(30, TimeUnit.SECONDS);
+            httpExecutor.shutdown();
+
+            LoadTestReport report = new LoadTestReport(options, elapsedNanos, results);
+            report.write(options.report());
+            log.info("Load test report written to {}\n{}", options.report().toAbsolutePath(), report.summary());
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=load-test",
+                "--spring.datasource.url=jdbc:h2:mem:load-test;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--server.port=0",
+                "--member.load-test.member-count=" + options.members(),
+                "--member.load-test.team-count=" + options.teams()));
+        // 사용자가 넘긴 인자가 기본값보다 우선한다.
+        args.addAll(options.applicationArgs());
+
+        return new SpringApplicationBuilder(QuerydslApplication.class)
+                .run(args.toArray(String[]::new));
+    }
+
+    /**
+     * 요청 하나를 보내고 응답을 받을 때까지의 시간을 기록한다. 2xx 가 아니면 오류로 센다.
+     */
+    private JsonNode call(Endpoint endpoint, String pathAndQuery) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            recorders.get(endpoint).recordValue(
+                    Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), HIGHEST_TRACKABLE_MICROS));
+            if (response.statusCode() / 100 != 2) {
+                errors.get(endpoint).increment();
+                return null;
+            }
+            return endpoint == Endpoint.V4 ? objectMapper.readTree(response.body()) : null;
+        } catch (IOException e) {
+            errors.get(endpoint).increment();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+            return null;
+        }
+    }
+
+    /**
+     * 워커마다 독립된 난수열을 쓰므로 같은 seed 와 옵션이면 같은 요청 순서가 재현된다.
+     * 조건은 MemberBulkService.generate 규칙(member i: age i % 100, team i % teams)에 맞춰 항상 결과가 있도록 만든다.
+     */
+    private class Worker {
+
+        private final Random random;
+        private String scrollQuery;
+        private String scrollCursor;
+        private int scrollPages;
+
+        Worker(Random random) {
+            this.random = random;
+        }
+
+        void loop() {
+            while (running && !Thread.currentThread().isInterrupted()) {
+                Endpoint endpoint = weightedEndpoints[random.nextInt(weightedEndpoints.length)];
+                switch (endpoint) {
+                    case V2 -> call(Endpoint.V2, "/v2/members?" + condition());
+                    case V3 -> call(Endpoint.V3, "/v3/members?" + condition()
+                            + "&page=" + random.nextInt(10)
+                            + "&size=" + options.pageSize()
+                            + "&count=" + (random.nextBoolean() ? "EXACT" : "ESTIMATED"));
+                    case V4 -> scroll();
+                }
+            }
+        }
+
+        /**
+         * 같은 조건으로 scrollDepth 페이지까지 커서를 따라간 뒤 새 조건으로 다시 시작한다.
+         */
+        private void scroll() {
+            if (scrollCursor == null || scrollPages >= options.scrollDepth()) {
+                scrollQuery = condition();
+                scrollCursor = null;
+                scrollPages = 0;
+            }
+
+            String cursor = scrollCursor != null ? "&cursor=" + scrollCursor : "";
+            JsonNode body = call(Endpoint.V4,
+                    "/v4/members?" + scrollQuery + "&pageSize=" + options.pageSize() + cursor);
+
+            JsonNode nextCursor = body != null ? body.get("nextCursor") : null;
+            scrollCursor = nextCursor != null && !nextCursor.isNull() ? nextCursor.asText() : null;
+            scrollPages++;
+        }
+
+        private String condition() {
+            int x = random.nextInt(options.members());
+            int age = x % 100;
+            String teamName = "team" + (x % Math.max(options.teams(), 1));
+            return switch (random.nextInt(4)) {
+                case 0 -> "username=member" + x;
+                case 1 -> "teamName=" + teamName + "&ageGoe=" + age + "&ageLoe=" + age;
+                case 2 -> "ageGoe=" + age + "&ageLoe=" + age;
+                default -> "teamName=" + teamName + "&ageGoe=" + Math.max(age - 5, 0) + "&ageLoe=" + age;
+            };
+        }
+    }
+}
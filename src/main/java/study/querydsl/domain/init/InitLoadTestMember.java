@@ -0,0 +1,32 @@
+package study.querydsl.domain.init;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import study.querydsl.domain.member.application.MemberBulkService;
+
+@Slf4j
+@Profile("load-test")
+@Component
+@RequiredArgsConstructor
+public class InitLoadTestMember {
+
+    private final MemberBulkService memberBulkService;
+
+    @Value("${member.load-test.team-count:100}")
+    private int teamCount;
+
+    @Value("${member.load-test.member-count:1000000}")
+    private int memberCount;
+
+    @PostConstruct
+    public void init() {
+        long start = System.nanoTime();
+        memberBulkService.generate(teamCount, memberCount);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Loaded {} members into {} teams in {} ms", memberCount, teamCount, elapsedMillis);
+    }
+}
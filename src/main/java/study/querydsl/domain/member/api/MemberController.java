@@ -1,23 +1,44 @@
 package study.querydsl.domain.member.api;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import study.querydsl.domain.member.application.MemberExportService;
 import study.querydsl.domain.member.application.MemberService;
+import study.querydsl.domain.member.dto.request.CountMode;
 import study.querydsl.domain.member.dto.request.MemberSearchCondition;
+import study.querydsl.domain.member.dto.response.MemberCompactPageResponse;
+import study.querydsl.domain.member.dto.response.MemberCompactSliceResponse;
+import study.querydsl.domain.member.dto.response.MemberExportResponse;
 import study.querydsl.domain.member.dto.response.MemberTeamDto;
-import study.querydsl.domain.member.dto.response.MemberTeamDtoV2;
+import study.querydsl.domain.member.dto.response.MemberSliceResponse;
+import study.querydsl.global.cache.EntityVersion;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
     private final MemberService memberService;
+    private final MemberExportService memberExportService;
+    private final ObjectMapper objectMapper;
+    private final EntityVersion entityVersion;
 
     @Deprecated
     @GetMapping("/v1/members")
@@ -26,18 +47,126 @@ public class MemberController {
     }
 
     @GetMapping("/v2/members")
-    public List<MemberTeamDto> memberSearchV2(MemberSearchCondition condition) {
+    public List<MemberTeamDto> memberSearchV2(MemberSearchCondition condition, WebRequest request) {
+        if (notModified(request, "v2", condition.normalized())) {
+            return null;
+        }
         return memberService.searchMemberV2(condition);
     }
 
+    @PostMapping("/v2/members/batch")
+    public List<List<MemberTeamDto>> memberSearchBatchV2(
+            @RequestBody List<MemberSearchCondition> conditions) {
+        return memberService.searchMemberBatch(conditions);
+    }
+
     @GetMapping("/v3/members")
-    public Page<MemberTeamDto> memberSearchV3(MemberSearchCondition condition, Pageable pageable) {
-        return memberService.searchMemberV3(condition, pageable);
+    public Page<MemberTeamDto> memberSearchV3(
+            MemberSearchCondition condition,
+            Pageable pageable,
+            @RequestParam(defaultValue = "EXACT") CountMode count,
+            WebRequest request) {
+        // 지연 예산 때문에 count 를 생략한 응답이 온전한 응답과 같은 ETag 를 갖지 않도록, 실제로 쓸 방식으로 계산한다.
+        CountMode countMode = memberService.countModeWithinDeadline(condition, count);
+        if (notModified(request, "v3", condition.normalized(), pageable, countMode)) {
+            return null;
+        }
+        return memberService.searchMemberV3(condition, pageable, countMode);
+    }
+
+    @GetMapping("/v3/members/compact")
+    public MemberCompactPageResponse memberSearchV3Compact(
+            MemberSearchCondition condition,
+            Pageable pageable,
+            @RequestParam(defaultValue = "EXACT") CountMode count,
+            WebRequest request) {
+        CountMode countMode = memberService.countModeWithinDeadline(condition, count);
+        if (notModified(request, "v3-compact", condition.normalized(), pageable, countMode)) {
+            return null;
+        }
+        return MemberCompactPageResponse.from(
+                memberService.searchMemberV3(condition, pageable, countMode), countMode);
     }
 
     @GetMapping("/v4/members")
-    public Slice<MemberTeamDtoV2> memberSearchV4(
-            MemberSearchCondition condition, Long lastMemberId, int pageSize) {
-        return memberService.searchMemberV4(condition, lastMemberId, pageSize);
+    public MemberSliceResponse memberSearchV4(
+            MemberSearchCondition condition, String cursor, int pageSize, WebRequest request) {
+        if (notModified(request, "v4", condition.normalized(), cursor, pageSize)) {
+            return null;
+        }
+        return memberService.searchMemberV4(condition, cursor, pageSize);
+    }
+
+    @GetMapping("/v4/members/compact")
+    public MemberCompactSliceResponse memberSearchV4Compact(
+            MemberSearchCondition condition, String cursor, int pageSize, WebRequest request) {
+        if (notModified(request, "v4-compact", condition.normalized(), cursor, pageSize)) {
+            return null;
+        }
+        return MemberCompactSliceResponse.from(memberService.searchMemberV4(condition, cursor, pageSize));
+    }
+
+    @GetMapping(value = "/v5/members/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void memberSearchV5(MemberSearchCondition condition, HttpServletResponse response)
+            throws IOException {
+        ObjectWriter writer = objectMapper
+                .writerFor(MemberTeamDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        NdjsonRowWriter rows = new NdjsonRowWriter(response, writer);
+        memberService.streamMemberV5(condition, rows);
+        rows.close();
+    }
+
+    @PostMapping("/v1/members/export")
+    public MemberExportResponse memberExportV1(MemberSearchCondition condition) {
+        return memberExportService.export(condition);
+    }
+
+    /**
+     * 조회 전에 ETag 를 계산하고, 클라이언트가 가진 값과 같으면 304 로 응답한다.
+     * Last-Modified 는 초 단위라 같은 초 안의 쓰기를 구분하지 못하므로 보내지 않는다.
+     */
+    private boolean notModified(WebRequest request, Object... scope) {
+        return entityVersion.canValidate() && request.checkNotModified(entityVersion.etag(scope));
+    }
+
+    /**
+     * 첫 행을 쓸 때 응답 스트림을 연다.
+     * 조회를 시작하기 전에 실패하면(동시 요청 한도 초과 등) 응답이 아직 커밋되지 않아 오류 응답을 보낼 수 있다.
+     */
+    private static class NdjsonRowWriter implements Consumer<MemberTeamDto> {
+
+        private final HttpServletResponse response;
+        private final ObjectWriter writer;
+        private JsonGenerator generator;
+
+        NdjsonRowWriter(HttpServletResponse response, ObjectWriter writer) {
+            this.response = response;
+            this.writer = writer;
+        }
+
+        @Override
+        public void accept(MemberTeamDto row) {
+            try {
+                writer.writeValue(generator(), row);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void close() throws IOException {
+            generator().close();
+        }
+
+        private JsonGenerator generator() throws IOException {
+            if (generator == null) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                generator = writer.getFactory().createGenerator(response.getOutputStream());
+                generator.setRootValueSeparator(null);
+            }
+            return generator;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package study.querydsl.domain.member.application;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.domain.member.dto.request.MemberCreateRequest;
+import study.querydsl.domain.team.domain.Team;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static study.querydsl.domain.member.domain.Member.createMember;
+import static study.querydsl.domain.team.domain.Team.createTeam;
+
+@Service
+@RequiredArgsConstructor
+public class MemberBulkService {
+
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${member.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Transactional
+    public int saveAll(List<MemberCreateRequest> requests) {
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            persistChunk(requests.subList(from, Math.min(from + chunkSize, requests.size())));
+        }
+        return requests.size();
+    }
+
+    /**
+     * 부하 테스트용 데이터를 생성한다. 청크마다 별도 트랜잭션으로 커밋하므로 수백만 건도 일정한 메모리로 적재된다.
+     * member i 는 username "member{i}", age i % 100, team "team{i % teamCount}" 를 갖는다.
+     */
+    public int generate(int teamCount, int memberCount) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        List<Long> teamIds = transactionTemplate.execute(status -> {
+            List<Team> teams = IntStream.range(0, teamCount)
+                    .mapToObj(i -> createTeam("team" + i))
+                    .toList();
+            teams.forEach(entityManager::persist);
+            return teams.stream().map(Team::getId).toList();
+        });
+
+        for (int from = 0; from < memberCount; from += chunkSize) {
+            List<MemberCreateRequest> chunk = IntStream.range(from, Math.min(from + chunkSize, memberCount))
+                    .mapToObj(i -> MemberCreateRequest.of(
+                            "member" + i,
+                            i % 100,
+                            teamIds.isEmpty() ? null : teamIds.get(i % teamIds.size())))
+                    .toList();
+            transactionTemplate.executeWithoutResult(status -> persistChunk(chunk));
+        }
+        return memberCount;
+    }
+
+    private void persistChunk(List<MemberCreateRequest> chunk) {
+        Map<Long, Team> teams = findTeams(chunk);
+
+        for (MemberCreateRequest request : chunk) {
+            Team team = null;
+            if (request.teamId() != null) {
+                team = teams.get(request.teamId());
+                if (team == null) {
+                    throw new IllegalArgumentException("Team not found: " + request.teamId());
+                }
+            }
+            entityManager.persist(createMember(request.username(), request.age(), team));
+        }
+
+        // 청크 단위로 batch insert 를 내보내고 영속성 컨텍스트를 비워 메모리 사용량을 일정하게 유지한다.
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Map<Long, Team> findTeams(List<MemberCreateRequest> chunk) {
+        Set<Long> teamIds = chunk.stream()
+                .map(MemberCreateRequest::teamId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (teamIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return entityManager
+                .createQuery("select t from Team t where t.id in :teamIds", Team.class)
+                .setParameter("teamIds", teamIds)
+                .getResultStream()
+                .collect(Collectors.toMap(Team::getId, Function.identity()));
+    }
+}
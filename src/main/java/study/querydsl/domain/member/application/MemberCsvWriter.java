@@ -0,0 +1,129 @@
+package study.querydsl.domain.member.application;
+
+import study.querydsl.domain.member.dto.response.MemberTeamDto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link MemberTeamDto} 를 CSV 로 쓴다. 파일이 rotationBytes 를 넘으면 다음 파일로 넘어가고, 파일마다 헤더를 쓴다.
+ * 행마다 채널에 쓰지 않도록 ByteBuffer 에 모았다가 가득 차면 한 번에 쓴다.
+ * 이미 있는 파일은 덮어쓰지 않고 실패한다. 쓰다가 실패하면 {@link #discard()} 로 만든 파일을 모두 지운다.
+ */
+class MemberCsvWriter implements Closeable {
+
+    private static final byte[] HEADER =
+            "memberId,username,age,teamId,teamName\n".getBytes(StandardCharsets.UTF_8);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final String prefix;
+    private final long rotationBytes;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final List<Path> files = new ArrayList<>();
+
+    private FileChannel channel;
+    private long fileBytes;
+
+    MemberCsvWriter(Path directory, String prefix, long rotationBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.prefix = prefix;
+        this.rotationBytes = rotationBytes;
+        rotate();
+    }
+
+    void write(MemberTeamDto row) throws IOException {
+        byte[] line = (row.memberId() + ","
+                + escape(row.username()) + ","
+                + row.age() + ","
+                + (row.teamId() != null ? row.teamId() : "") + ","
+                + escape(row.teamName()) + "\n").getBytes(StandardCharsets.UTF_8);
+
+        if (fileBytes + line.length > rotationBytes && fileBytes > HEADER.length) {
+            rotate();
+        }
+        put(line);
+    }
+
+    List<Path> files() {
+        return List.copyOf(files);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            flush();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * 버퍼를 쓰지 않고 닫은 뒤, 이 writer 가 만든 파일을 모두 지운다.
+     */
+    void discard() throws IOException {
+        buffer.clear();
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private void rotate() throws IOException {
+        close();
+        Path file = directory.resolve(String.format("%s-%04d.csv", prefix, files.size() + 1));
+        channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        files.add(file);
+        fileBytes = 0;
+        put(HEADER);
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.remaining()) {
+            flush();
+        }
+        if (bytes.length > buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+        fileBytes += bytes.length;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
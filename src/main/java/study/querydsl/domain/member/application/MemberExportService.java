@@ -0,0 +1,107 @@
+package study.querydsl.domain.member.application;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+import study.querydsl.domain.member.dao.MemberSearchQueryCache;
+import study.querydsl.domain.member.dto.request.MemberSearchCondition;
+import study.querydsl.domain.member.dto.response.MemberExportResponse;
+import study.querydsl.global.limit.ConcurrencyLimited;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * 검색 결과 전체를 CSV 파일로 내보낸다.
+ * <p>
+ * 결과를 목록으로 만들지 않고 forward-only 커서로 fetchSize 만큼씩 읽어 바로 파일에 쓰므로,
+ * 메모리 사용량이 전체 건수와 무관하다. chunkSize 건마다 세션을 비운다.
+ * 파일 이름은 export 마다 다른 UUID 로 시작하고, 응답에는 export 디렉터리 기준 파일 이름만 담는다.
+ * 중간에 실패하면 그 export 가 만든 파일을 지워 일부만 쓴 파일이 남지 않게 한다.
+ */
+@Slf4j
+@Service
+public class MemberExportService {
+
+    private final EntityManager entityManager;
+    private final MemberSearchQueryCache memberSearchQueryCache;
+    private final Path directory;
+    private final int fetchSize;
+    private final int chunkSize;
+    private final long rotationBytes;
+
+    public MemberExportService(
+            EntityManager entityManager,
+            MemberSearchQueryCache memberSearchQueryCache,
+            @Value("${member.export.directory:${java.io.tmpdir}/member-export}") Path directory,
+            @Value("${member.export.fetch-size:1000}") int fetchSize,
+            @Value("${member.export.chunk-size:1000}") int chunkSize,
+            @Value("${member.export.rotation-size:64MB}") DataSize rotationSize) {
+        this.entityManager = entityManager;
+        this.memberSearchQueryCache = memberSearchQueryCache;
+        this.directory = directory;
+        this.fetchSize = fetchSize;
+        this.chunkSize = chunkSize;
+        this.rotationBytes = rotationSize.toBytes();
+    }
+
+    @ConcurrencyLimited("member-stream")
+    @Transactional(readOnly = true)
+    public MemberExportResponse export(MemberSearchCondition condition) {
+        long started = System.nanoTime();
+        Session session = entityManager.unwrap(Session.class);
+        Query<?> query = memberSearchQueryCache.contentQuery(condition).unwrap(Query.class);
+
+        long rows = 0;
+        MemberCsvWriter writer = null;
+        boolean completed = false;
+        try (ScrollableResults<?> results = query
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            writer = new MemberCsvWriter(directory, "members-" + UUID.randomUUID(), rotationBytes);
+            while (results.next()) {
+                writer.write(MemberSearchQueryCache.toDto(results.get()));
+                if (++rows % chunkSize == 0) {
+                    session.clear();
+                }
+            }
+            writer.close();
+            completed = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!completed) {
+                discardQuietly(writer);
+            }
+        }
+
+        MemberExportResponse response = MemberExportResponse.of(
+                writer.files().stream().map(file -> directory.relativize(file).toString()).toList(),
+                rows,
+                System.nanoTime() - started);
+        log.info("member export {} 건, {} ms, {} rows/s, files={}",
+                response.rows(), response.elapsedMillis(), response.rowsPerSecond(), response.files());
+        return response;
+    }
+
+    private static void discardQuietly(MemberCsvWriter writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.discard();
+        } catch (IOException e) {
+            log.warn("실패한 export 파일을 지우지 못했습니다. files={}", writer.files(), e);
+        }
+    }
+}
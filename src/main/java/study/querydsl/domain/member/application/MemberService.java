@@ -1,20 +1,28 @@
 package study.querydsl.domain.member.application;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.domain.member.dao.MemberJpaRepository;
 import study.querydsl.domain.member.dao.MemberRepository;
+import study.querydsl.domain.member.dto.request.CountMode;
+import study.querydsl.domain.member.dto.request.MemberCursor;
 import study.querydsl.domain.member.dto.request.MemberSearchCondition;
 import study.querydsl.domain.member.dto.response.MemberTeamDto;
-import study.querydsl.domain.member.dto.response.MemberTeamDtoV2;
+import study.querydsl.domain.member.dto.response.MemberSliceResponse;
+import study.querydsl.global.deadline.QueryDeadline;
+import study.querydsl.global.error.InvalidRequestException;
+import study.querydsl.global.limit.ConcurrencyLimited;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-@Transactional
+@Transactional(readOnly = true)
 @Service
 @RequiredArgsConstructor
 public class MemberService {
@@ -23,22 +31,66 @@ public class MemberService {
     private final MemberJpaRepository memberJpaRepository;
 
     private final MemberRepository memberRepository;
+    private final EntityManager entityManager;
+    private final QueryDeadline queryDeadline;
+
+    @Value("${member.search.batch.max-conditions:1000}")
+    private int maxBatchConditions;
 
     @Deprecated
     public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
         return memberJpaRepository.searchByWhereParam(condition);
     }
 
+    @ConcurrencyLimited("member-list")
     public List<MemberTeamDto> searchMemberV2(MemberSearchCondition condition) {
         return memberRepository.search(condition);
     }
 
-    public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPage(condition, pageable);
+    /**
+     * 조건이 없는 검색은 member 전체를 메모리로 읽으므로 batch 로 받지 않는다.
+     */
+    @ConcurrencyLimited("member-list")
+    public List<List<MemberTeamDto>> searchMemberBatch(List<MemberSearchCondition> conditions) {
+        if (conditions.size() > maxBatchConditions) {
+            throw new InvalidRequestException(
+                    "batch 조건은 최대 " + maxBatchConditions + "개입니다: " + conditions.size());
+        }
+        for (int i = 0; i < conditions.size(); i++) {
+            if (conditions.get(i).shape() == 0) {
+                throw new InvalidRequestException("batch 조건 " + i + " 에 검색 조건이 없습니다.");
+            }
+        }
+        return memberRepository.searchBatch(conditions);
+    }
+
+    /**
+     * 스트림은 소비하는 동안 커서를 잡고 있으므로, 조회뿐 아니라 소비가 끝날 때까지 deadline 을 건다.
+     */
+    @ConcurrencyLimited("member-stream")
+    public void streamMemberV5(MemberSearchCondition condition, Consumer<MemberTeamDto> action) {
+        queryDeadline.execute(entityManager, () -> {
+            try (Stream<MemberTeamDto> stream = memberRepository.searchStream(condition)) {
+                stream.forEach(action);
+            }
+            return null;
+        });
+    }
+
+    public CountMode countModeWithinDeadline(MemberSearchCondition condition, CountMode countMode) {
+        return memberRepository.countModeWithinDeadline(condition, countMode);
+    }
+
+    @ConcurrencyLimited("member-page")
+    public Page<MemberTeamDto> searchMemberV3(
+            MemberSearchCondition condition, Pageable pageable, CountMode countMode) {
+        return memberRepository.searchPage(condition, pageable, countMode);
     }
 
-    public Slice<MemberTeamDtoV2> searchMemberV4(
-            MemberSearchCondition condition, Long lastMemberId, int pageSize) {
-        return memberRepository.searchSlice(condition, lastMemberId, pageSize);
+    @ConcurrencyLimited("member-slice")
+    public MemberSliceResponse searchMemberV4(
+            MemberSearchCondition condition, String cursor, int pageSize) {
+        return MemberSliceResponse.from(
+                memberRepository.searchSlice(condition, MemberCursor.decode(cursor), pageSize));
     }
 }
\ No newline at end of file
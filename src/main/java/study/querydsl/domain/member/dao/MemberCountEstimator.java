@@ -0,0 +1,97 @@
+package study.querydsl.domain.member.dao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.querydsl.domain.member.dto.request.MemberSearchCondition;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * count 쿼리 없이 검색 결과 건수를 추정한다.
+ * <p>
+ * 추정치 = member 테이블 행 수(DB 통계) x predicate shape 별 선택도 x IN 값 개수.
+ * 선택도는 EXACT count 가 실행될 때마다 그 결과로 갱신하고, shape 마다 TTL 동안 유지한다.
+ * 아직 관측한 적 없는 shape 는 추정하지 않는다.
+ * 테이블 행 수는 table-rows-sql 로 DB 통계에서 읽는다 (기본값은 H2, PostgreSQL 은 pg_class.reltuples).
+ */
+@Component
+public class MemberCountEstimator {
+
+    private static final double SMOOTHING = 0.3;
+
+    private final EntityManager entityManager;
+    private final String tableRowsSql;
+    private final LoadingCache<Boolean, Long> tableRows;
+    private final Cache<Integer, Double> selectivityByShape;
+
+    public MemberCountEstimator(
+            EntityManager entityManager,
+            @Value("${member.search.count-estimate.ttl:60s}") Duration ttl,
+            @Value("${member.search.count-estimate.table-rows-sql:"
+                    + "select row_count_estimate from information_schema.tables"
+                    + " where lower(table_name) = 'member'}") String tableRowsSql) {
+        this.entityManager = entityManager;
+        this.tableRowsSql = tableRowsSql;
+        this.tableRows = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build(key -> loadTableRows());
+        this.selectivityByShape = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public OptionalLong estimate(MemberSearchCondition condition) {
+        int shape = condition.shape();
+        if (shape == 0) {
+            return OptionalLong.of(tableRows());
+        }
+
+        Double selectivity = selectivityByShape.getIfPresent(shape);
+        if (selectivity == null) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(Math.round(tableRows() * selectivity * values(condition)));
+    }
+
+    /**
+     * EXACT count 결과로 condition 의 shape 선택도를 갱신한다.
+     */
+    public void record(MemberSearchCondition condition, long count) {
+        int shape = condition.shape();
+        if (shape == 0) {
+            return;
+        }
+
+        double observed = count / (double) Math.max(tableRows(), 1) / values(condition);
+        selectivityByShape.asMap().merge(
+                shape, observed, (previous, current) -> previous + (current - previous) * SMOOTHING);
+    }
+
+    private long tableRows() {
+        return tableRows.get(Boolean.TRUE);
+    }
+
+    private long loadTableRows() {
+        Object rows = entityManager.createNativeQuery(tableRowsSql).getSingleResult();
+        return rows != null ? Math.max(((Number) rows).longValue(), 0) : 0;
+    }
+
+    /**
+     * IN 조건의 값 개수 곱. 같은 shape 라도 값이 많을수록 결과가 많다고 본다.
+     */
+    private static long values(MemberSearchCondition condition) {
+        return size(condition.usernameValues())
+                * size(condition.teamNameValues())
+                * size(condition.teamIdValues());
+    }
+
+    private static long size(List<?> values) {
+        return values != null ? values.size() : 1;
+    }
+}
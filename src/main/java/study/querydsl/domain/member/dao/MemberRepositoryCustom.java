@@ -3,15 +3,30 @@ package study.querydsl.domain.member.dao;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import study.querydsl.domain.member.dto.request.CountMode;
+import study.querydsl.domain.member.dto.request.MemberCursor;
 import study.querydsl.domain.member.dto.request.MemberSearchCondition;
 import study.querydsl.domain.member.dto.response.MemberTeamDto;
 import study.querydsl.domain.member.dto.response.MemberTeamDtoV2;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MemberRepositoryCustom {
     List<MemberTeamDto> search(MemberSearchCondition condition);
-    Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable);
+    List<List<MemberTeamDto>> searchBatch(List<MemberSearchCondition> conditions);
+    Stream<MemberTeamDto> searchStream(MemberSearchCondition condition);
+    default Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        return searchPage(condition, pageable, CountMode.EXACT);
+    }
+    Page<MemberTeamDto> searchPage(
+            MemberSearchCondition condition, Pageable pageable, CountMode countMode);
+    /**
+     * 현재 요청의 남은 지연 예산으로 실제로 쓸 count 방식. 응답을 만들기 전에(ETag 계산 등) 한 번 정해 searchPage 에 넘긴다.
+     */
+    CountMode countModeWithinDeadline(MemberSearchCondition condition, CountMode countMode);
     Slice<MemberTeamDtoV2> searchSlice(
-            MemberSearchCondition condition, Long lastMemberId, int pageSize);
+            MemberSearchCondition condition, MemberCursor cursor, int pageSize);
+    long bulkAddAge(MemberSearchCondition condition, int delta, int chunkSize);
+    long bulkDelete(MemberSearchCondition condition, int chunkSize);
 }
\ No newline at end of file
@@ -1,18 +1,39 @@
 package study.querydsl.domain.member.dao;
 
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import study.querydsl.domain.member.dto.request.CountMode;
+import study.querydsl.domain.member.dto.request.MemberCursor;
 import study.querydsl.domain.member.dto.request.MemberSearchCondition;
 import study.querydsl.domain.member.dto.response.MemberTeamDto;
 import study.querydsl.domain.member.dto.response.MemberTeamDtoV2;
 import study.querydsl.domain.member.dto.response.QMemberTeamDto;
+import study.querydsl.domain.team.application.TeamStatsRecorder;
+import study.querydsl.domain.team.dao.TeamNameCache;
+import study.querydsl.global.concurrent.ParallelQueryExecutor;
+import study.querydsl.global.deadline.Deadline;
+import study.querydsl.global.deadline.QueryDeadline;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.domain.member.domain.QMember.member;
@@ -22,10 +43,150 @@ import static study.querydsl.domain.team.domain.QTeam.team;
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     private final JPAQueryFactory queryFactory;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final MemberCountEstimator memberCountEstimator;
+    private final MemberSearchCache memberSearchCache;
+    private final MemberSearchQueryCache memberSearchQueryCache;
+    private final ParallelQueryExecutor parallelQueryExecutor;
+    private final TeamNameCache teamNameCache;
+    private final TeamStatsRecorder teamStatsRecorder;
+    private final UsernameTrigramIndex usernameTrigramIndex;
+    private final QueryDeadline queryDeadline;
+
+    @Value("${member.search.stream.fetch-size:500}")
+    private int streamFetchSize;
+
+    @Value("${member.search.batch.size:200}")
+    private int searchBatchSize;
+
+    @Value("${member.search.batch.max-parameters:1000}")
+    private int searchBatchMaxParameters;
+
+    @Value("${member.search.deadline.count-min-budget:200ms}")
+    private Duration countMinBudget;
 
     @Override
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
+        return memberSearchCache.get(
+                new SearchKey(condition.normalized(), null, null),
+                () -> List.copyOf(memberSearchQueryCache.fetch(condition)));
+    }
+
+    /**
+     * 여러 검색 조건을 OR 로 묶은 쿼리로 조회하고, 각 행을 일치하는 조건마다 나눠 담는다.
+     * <p>
+     * 결과는 conditions 와 같은 순서이며 각 목록은 member id 순이다.
+     * 한 쿼리에는 조건을 batchSize 개까지, 바인드 파라미터를 maxParameters 개까지만 묶는다.
+     * usernameLike 는 trigram 후보 id 목록만큼 파라미터를 쓰므로 조건 하나가 수백 개를 차지할 수 있다.
+     * 조건이 없는 검색은 다른 조건과 묶으면 전체를 읽게 되므로 따로 한 번에 실행한다.
+     */
+    @Override
+    public List<List<MemberTeamDto>> searchBatch(List<MemberSearchCondition> conditions) {
+        List<List<MemberTeamDto>> results = new ArrayList<>(conditions.size());
+        List<BatchEntry> unfiltered = new ArrayList<>();
+        List<BatchEntry> statement = new ArrayList<>();
+        int parameters = 0;
+
+        for (int i = 0; i < conditions.size(); i++) {
+            results.add(new ArrayList<>());
+            BatchEntry entry = batchEntry(i, conditions.get(i));
+            if (entry.predicate() == null) {
+                unfiltered.add(entry);
+                continue;
+            }
+
+            if (!statement.isEmpty()
+                    && (statement.size() >= searchBatchSize
+                    || parameters + entry.parameters() > searchBatchMaxParameters)) {
+                fetchBatch(statement, results);
+                statement = new ArrayList<>();
+                parameters = 0;
+            }
+            statement.add(entry);
+            parameters += entry.parameters();
+        }
+
+        if (!statement.isEmpty()) {
+            fetchBatch(statement, results);
+        }
+        if (!unfiltered.isEmpty()) {
+            fetchBatch(unfiltered, results);
+        }
+        return results;
+    }
+
+    private BatchEntry batchEntry(int index, MemberSearchCondition condition) {
+        List<String> usernames = condition.usernameValues();
+        List<String> teamNames = condition.teamNameValues();
+        List<Long> namedTeamIds = teamNames != null ? teamNameCache.findTeamIds(teamNames) : null;
+        List<Long> teamIds = condition.teamIdValues();
+        String pattern = hasText(condition.usernameLike()) ? condition.usernameLike() : null;
+        List<Long> candidates = pattern != null ? usernameTrigramIndex.candidates(pattern) : null;
+
+        Predicate predicate = ExpressionUtils.allOf(
+                usernameIn(usernames),
+                namedTeamIds != null ? member.team.id.in(namedTeamIds) : null,
+                teamIdIn(teamIds),
+                ageGoe(condition.ageGoe()),
+                ageLoe(condition.ageLoe()),
+                usernameLike(pattern, candidates));
+        int parameters = paddedSize(usernames)
+                + paddedSize(namedTeamIds)
+                + paddedSize(teamIds)
+                + paddedSize(candidates)
+                + (condition.ageGoe() != null ? 1 : 0)
+                + (condition.ageLoe() != null ? 1 : 0)
+                + (pattern != null ? 1 : 0);
+
+        return new BatchEntry(index, MemberSearchMatcher.of(condition, namedTeamIds), predicate, parameters);
+    }
+
+    /**
+     * in_clause_parameter_padding 으로 IN 목록은 2 의 거듭제곱 개 파라미터로 늘어난다.
+     */
+    private static int paddedSize(List<?> values) {
+        if (values == null) {
+            return 0;
+        }
+        int size = values.size();
+        return size <= 1 ? size : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    private void fetchBatch(List<BatchEntry> entries, List<List<MemberTeamDto>> results) {
+        BooleanBuilder where = new BooleanBuilder();
+        for (BatchEntry entry : entries) {
+            where.or(entry.predicate());
+        }
+
+        JPAQuery<MemberTeamDto> query =
+                queryFactory
+                        .select(
+                                new QMemberTeamDto(
+                                        member.id,
+                                        member.username,
+                                        member.age,
+                                        team.id,
+                                        team.name))
+                        .from(member)
+                        .leftJoin(team).on(team.id.eq(member.team.id))
+                        .where(where)
+                        .orderBy(member.id.asc());
+        List<MemberTeamDto> rows =
+                queryDeadline.execute(entityManager, queryDeadline.withTimeout(query)::fetch);
+
+        for (MemberTeamDto row : rows) {
+            for (BatchEntry entry : entries) {
+                if (entry.matcher().matches(row)) {
+                    results.get(entry.index()).add(row);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Stream<MemberTeamDto> searchStream(MemberSearchCondition condition) {
+        JPAQuery<MemberTeamDto> query = queryFactory
                 .select(
                         new QMemberTeamDto(
                                 member.id,
@@ -34,55 +195,117 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                                 team.id,
                                 team.name))
                 .from(member)
-                .leftJoin(member.team, team)
+                .leftJoin(team).on(team.id.eq(member.team.id))
                 .where(
-                        usernameEq(condition.username()),
-                        teamNameEq(condition.teamName()),
+                        usernameIn(condition.usernameValues()),
+                        teamNameIn(condition.teamNameValues()),
+                        teamIdIn(condition.teamIdValues()),
                         ageGoe(condition.ageGoe()),
-                        ageLoe(condition.ageLoe()))
-                .fetch();
+                        ageLoe(condition.ageLoe()),
+                        usernameLike(condition.usernameLike()))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+
+        return queryDeadline.withTimeout(query).stream();
     }
 
     @Override
-    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+    public Page<MemberTeamDto> searchPage(
+            MemberSearchCondition condition, Pageable pageable, CountMode countMode) {
+        return memberSearchCache.get(
+                new SearchKey(condition.normalized(), pageable, countMode),
+                () -> fetchPage(condition, pageable, countMode));
+    }
+
+    /**
+     * 남은 지연 예산이 count 최소 예산보다 작으면 count 를 실행하지 않고 ESTIMATED 로 낮춘다.
+     */
+    @Override
+    public CountMode countModeWithinDeadline(MemberSearchCondition condition, CountMode countMode) {
+        Deadline deadline = Deadline.current();
+        if (countMode != CountMode.EXACT
+                || deadline == null
+                || deadline.remainingNanos() >= countMinBudget.toNanos()) {
+            return countMode;
+        }
+        return CountMode.ESTIMATED;
+    }
+
+    private Page<MemberTeamDto> fetchPage(
+            MemberSearchCondition condition, Pageable pageable, CountMode countMode) {
+        long limit = countMode == CountMode.EXACT
+                ? pageable.getPageSize()
+                : (long) pageable.getPageSize() + 1;
+
+        // 짧은 페이지면 PageableExecutionUtils 가 count 를 생략하므로, 기본적으로 count 는 필요할 때 실행한다.
+        // 추정치로 보아 이 페이지가 가득 찰 것이 분명할 때만 content 와 동시에 다른 커넥션에서 미리 실행한다.
+        LongSupplier count = () -> memberSearchQueryCache.count(condition);
+        LongSupplier exactCount = countMode == CountMode.EXACT && pageLikelyFull(condition, pageable)
+                ? parallelQueryExecutor.submit(count)
+                : count;
+
         List<MemberTeamDto> results =
-                queryFactory
-                        .select(
-                                new QMemberTeamDto(
-                                        member.id,
-                                        member.username,
-                                        member.age,
-                                        team.id,
-                                        team.name))
-                        .from(member)
-                        .leftJoin(member.team, team)
-                        .where(
-                                usernameEq(condition.username()),
-                                teamNameEq(condition.teamName()),
-                                ageGoe(condition.ageGoe()),
-                                ageLoe(condition.ageLoe()))
-                        .offset(pageable.getOffset())
-                        .limit(pageable.getPageSize())
-                        .fetch();
+                memberSearchQueryCache.fetch(condition, pageable.getOffset(), limit);
 
-        JPAQuery<Long> countQuery =
-                queryFactory
-                        .select(member.count())
-                        .from(member)
-                        .leftJoin(member.team, team)
-                        .where(
-                                usernameEq(condition.username()),
-                                teamNameEq(condition.teamName()),
-                                ageGoe(condition.ageGoe()),
-                                ageLoe(condition.ageLoe()));
+        return switch (countMode) {
+            case NONE -> withoutCount(results, pageable);
+            case EXACT -> PageableExecutionUtils.getPage(results, pageable, () -> {
+                long total = exactCount.getAsLong();
+                memberCountEstimator.record(condition, total);
+                return total;
+            });
+            case ESTIMATED -> withEstimatedCount(results, pageable, condition);
+        };
+    }
+
+    /**
+     * 추정 건수가 이 페이지 끝의 두 배를 넘으면 페이지가 가득 차 count 가 필요하다고 본다. 추정치가 없으면 false.
+     */
+    private boolean pageLikelyFull(MemberSearchCondition condition, Pageable pageable) {
+        long pageEnd = pageable.getOffset() + pageable.getPageSize();
+        return memberCountEstimator.estimate(condition).orElse(0) >= pageEnd * 2;
+    }
+
+    private Page<MemberTeamDto> withoutCount(List<MemberTeamDto> results, Pageable pageable) {
+        boolean hasNext = trimLookAhead(results, pageable);
+
+        // total 은 다음 페이지 존재 여부만 표현하는 하한값이다.
+        long total = pageable.getOffset() + results.size() + (hasNext ? 1 : 0);
+
+        return new PageImpl<>(results, pageable, total);
+    }
+
+    /**
+     * 마지막 페이지면 total 이 정확히 정해지고, 아니면 추정치를 쓰되 다음 페이지가 있다는 사실과 모순되지 않게 한다.
+     * 추정할 수 없으면 NONE 과 같은 하한값을 돌려준다.
+     */
+    private Page<MemberTeamDto> withEstimatedCount(
+            List<MemberTeamDto> results, Pageable pageable, MemberSearchCondition condition) {
+        boolean hasNext = trimLookAhead(results, pageable);
+        long lowerBound = pageable.getOffset() + results.size() + (hasNext ? 1 : 0);
+
+        long total = hasNext
+                ? Math.max(memberCountEstimator.estimate(condition).orElse(lowerBound), lowerBound)
+                : lowerBound;
 
-        return PageableExecutionUtils.getPage(results, pageable, countQuery::fetchOne);
+        return new PageImpl<>(results, pageable, total);
+    }
+
+    /**
+     * pageSize + 1 로 조회한 결과에서 한 건 더 읽힌 행을 지우고, 다음 페이지가 있는지 돌려준다.
+     */
+    private static boolean trimLookAhead(List<MemberTeamDto> results, Pageable pageable) {
+        if (results.size() > pageable.getPageSize()) {
+            results.remove(pageable.getPageSize());
+            return true;
+        }
+        return false;
     }
 
     @Override
     public Slice<MemberTeamDtoV2> searchSlice(
-            MemberSearchCondition condition, Long lastMemberId, int pageSize) {
-        List<MemberTeamDtoV2> results =
+            MemberSearchCondition condition, MemberCursor cursor, int pageSize) {
+        JPAQuery<MemberTeamDtoV2> query =
                 queryFactory
                         .select(Projections.constructor(
                                 MemberTeamDtoV2.class,
@@ -90,27 +313,33 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                                 member.username,
                                 member.age,
                                 team.id,
-                                team.name))
+                                team.name,
+                                member.updatedAt))
                         .from(member)
-                        .leftJoin(member.team, team)
+                        .leftJoin(team).on(team.id.eq(member.team.id))
                         .where(
-                                lastMemberId(lastMemberId),
-                                usernameEq(condition.username()),
-                                teamNameEq(condition.teamName()),
+                                cursorLt(cursor),
+                                usernameIn(condition.usernameValues()),
+                                teamNameIn(condition.teamNameValues()),
+                                teamIdIn(condition.teamIdValues()),
                                 ageGoe(condition.ageGoe()),
-                                ageLoe(condition.ageLoe()))
-                        .orderBy(member.updatedAt.desc())
-                        .limit((long) pageSize + 1)
-                        .fetch();
+                                ageLoe(condition.ageLoe()),
+                                usernameLike(condition.usernameLike()))
+                        .orderBy(member.updatedAt.desc(), member.id.desc())
+                        .limit((long) pageSize + 1);
+        List<MemberTeamDtoV2> results =
+                queryDeadline.execute(entityManager, queryDeadline.withTimeout(query)::fetch);
 
         return checkLastPage(results, pageSize);
     }
 
-    private BooleanExpression lastMemberId(Long lastMemberId) {
-        if (lastMemberId == null) {
+    private BooleanExpression cursorLt(MemberCursor cursor) {
+        if (cursor == null) {
             return null;
         }
-        return member.id.lt(lastMemberId);
+        return member.updatedAt.lt(cursor.updatedAt())
+                .or(member.updatedAt.eq(cursor.updatedAt())
+                        .and(member.id.lt(cursor.memberId())));
     }
 
     private Slice<MemberTeamDtoV2> checkLastPage(List<MemberTeamDtoV2> results, int pageSize) {
@@ -126,12 +355,101 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         return new SliceImpl<>(results, pageRequest, hasNext);
     }
 
-    private BooleanExpression usernameEq(String username) {
-        return hasText(username) ? member.username.eq(username) : null;
+    @Override
+    public long bulkAddAge(MemberSearchCondition condition, int delta, int chunkSize) {
+        return executeInChunks(condition, chunkSize, where ->
+                queryFactory
+                        .update(member)
+                        .set(member.age, member.age.add(delta))
+                        .where(where)
+                        .execute());
+    }
+
+    @Override
+    public long bulkDelete(MemberSearchCondition condition, int chunkSize) {
+        return executeInChunks(condition, chunkSize, where ->
+                queryFactory
+                        .delete(member)
+                        .where(where)
+                        .execute());
+    }
+
+    /**
+     * 조건에 맞는 member 를 id 순으로 chunkSize 개씩 나눠 벌크 연산을 실행한다.
+     * <p>
+     * 호출한 쪽에 트랜잭션이 없으면 chunk 마다 트랜잭션을 커밋해 락과 undo 로그를 chunk 크기로 제한하고,
+     * 트랜잭션이 있으면 그 트랜잭션에 참여한다.
+     * 벌크 연산은 영속성 컨텍스트를 거치지 않으므로 chunk 마다 flush 후 실행하고 clear 한다.
+     * 중간 chunk 에서 끊기면 앞 chunk 만 반영된 채 남으므로 요청 deadline 은 적용하지 않는다.
+     */
+    private long executeInChunks(
+            MemberSearchCondition condition, int chunkSize, ToLongFunction<Predicate[]> statement) {
+        Assert.isTrue(chunkSize > 0, "chunkSize 는 0 보다 커야 합니다.");
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long affected = 0;
+        Long lastId = null;
+
+        while (true) {
+            Long fromId = lastId;
+            Chunk chunk = transactionTemplate.execute(status -> {
+                entityManager.flush();
+
+                Long toId =
+                        queryFactory
+                                .select(member.id)
+                                .from(member)
+                                .where(chunkConditions(condition, fromId, null))
+                                .orderBy(member.id.asc())
+                                .offset(chunkSize - 1)
+                                .fetchFirst();
+
+                Predicate[] where = chunkConditions(condition, fromId, toId);
+
+                // 벌크 연산은 엔티티 리스너를 거치지 않으므로 영향받는 팀의 통계를 다시 계산하도록 남긴다.
+                teamStatsRecorder.recompute(
+                        queryFactory
+                                .selectDistinct(member.team.id)
+                                .from(member)
+                                .where(where)
+                                .fetch());
+
+                long count = statement.applyAsLong(where);
+                entityManager.clear();
+                return new Chunk(toId, count);
+            });
+
+            affected += chunk.affected();
+            if (chunk.toId() == null) {
+                return affected;
+            }
+            lastId = chunk.toId();
+        }
+    }
+
+    private Predicate[] chunkConditions(MemberSearchCondition condition, Long fromId, Long toId) {
+        return new Predicate[]{
+                fromId != null ? member.id.gt(fromId) : null,
+                toId != null ? member.id.loe(toId) : null,
+                usernameIn(condition.usernameValues()),
+                teamNameIn(condition.teamNameValues()),
+                teamIdIn(condition.teamIdValues()),
+                ageGoe(condition.ageGoe()),
+                ageLoe(condition.ageLoe()),
+                usernameLike(condition.usernameLike())
+        };
+    }
+
+    private BooleanExpression usernameIn(List<String> usernames) {
+        return usernames != null ? member.username.in(usernames) : null;
+    }
+
+    private BooleanExpression teamNameIn(List<String> teamNames) {
+        return teamNames != null ? member.team.id.in(teamNameCache.findTeamIds(teamNames)) : null;
     }
 
-    private BooleanExpression teamNameEq(String teamName) {
-        return hasText(teamName) ? team.name.eq(teamName) : null;
+    private BooleanExpression teamIdIn(List<Long> teamIds) {
+        return teamIds != null ? member.team.id.in(teamIds) : null;
     }
 
     private BooleanExpression ageGoe(Integer ageGoe) {
@@ -141,4 +459,28 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
     private BooleanExpression ageLoe(Integer ageLoe) {
         return ageLoe != null ? member.age.loe(ageLoe) : null;
     }
+
+    private BooleanExpression usernameLike(String pattern) {
+        if (!hasText(pattern)) {
+            return null;
+        }
+        return usernameLike(pattern, usernameTrigramIndex.candidates(pattern));
+    }
+
+    private BooleanExpression usernameLike(String pattern, List<Long> candidates) {
+        if (pattern == null) {
+            return null;
+        }
+        BooleanExpression like = member.username.like(pattern);
+        return candidates != null ? member.id.in(candidates).and(like) : like;
+    }
+
+    private record BatchEntry(int index, MemberSearchMatcher matcher, Predicate predicate, int parameters) {
+    }
+
+    private record Chunk(Long toId, long affected) {
+    }
+
+    private record SearchKey(MemberSearchCondition condition, Pageable pageable, CountMode countMode) {
+    }
 }
\ No newline at end of file
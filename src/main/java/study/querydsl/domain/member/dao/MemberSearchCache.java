@@ -0,0 +1,91 @@
+package study.querydsl.domain.member.dao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import study.querydsl.global.cache.EntityWriteTracker;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 검색 결과 캐시. 이 프로세스의 쓰기가 감지되면 전부 버린다.
+ * <p>
+ * 다른 인스턴스나 Hibernate 를 거치지 않은 SQL 의 쓰기는 감지하지 못하므로, ttl 이 지나면 다시 읽는다.
+ */
+@Component
+public class MemberSearchCache {
+
+    private final Cache<Object, Object> cache;
+    private final EntityWriteTracker entityWriteTracker;
+    private final boolean enabled;
+    private final AtomicLong generation = new AtomicLong();
+
+    public MemberSearchCache(
+            EntityWriteTracker entityWriteTracker,
+            MeterRegistry meterRegistry,
+            @Value("${member.search.cache.enabled:true}") boolean enabled,
+            @Value("${member.search.cache.maximum-rows:100000}") long maximumRows,
+            @Value("${member.search.cache.ttl:60s}") Duration ttl) {
+        this.entityWriteTracker = entityWriteTracker;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumRows)
+                .expireAfterWrite(ttl)
+                .weigher((key, value) -> rows(value) + 1)
+                .recordStats()
+                .build();
+
+        entityWriteTracker.addListener(this::invalidateAll);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "memberSearch");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Supplier<T> loader) {
+        // 아직 커밋되지 않은 쓰기가 있을 수 있는 트랜잭션의 조회 결과는 다른 트랜잭션과 공유하면 안 된다.
+        if (!enabled || entityWriteTracker.hasUncommittedWrites()) {
+            return loader.get();
+        }
+
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        // 최근 쓰기를 복제하지 못한 replica 에서 읽은 결과는 쓰기 후의 무효화로 버려지지 않으므로 저장하지 않는다.
+        if (entityWriteTracker.mayReadStaleReplica()) {
+            return loader.get();
+        }
+
+        long loadedGeneration = generation.get();
+        T loaded = loader.get();
+        cache.put(key, loaded);
+
+        // 조회 도중 무효화가 일어났다면 이전 데이터일 수 있으므로 저장하지 않는다.
+        if (loadedGeneration != generation.get()) {
+            cache.invalidate(key);
+        }
+        return loaded;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static int rows(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (value instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        return 0;
+    }
+}
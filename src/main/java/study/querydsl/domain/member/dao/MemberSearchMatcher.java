@@ -0,0 +1,77 @@
+package study.querydsl.domain.member.dao;
+
+import study.querydsl.domain.member.dto.request.MemberSearchCondition;
+import study.querydsl.domain.member.dto.response.MemberTeamDto;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 검색 조건을 이미 조회한 행에 메모리에서 다시 적용한다.
+ * <p>
+ * 여러 조건을 OR 로 묶어 한 번에 조회한 뒤 행을 조건별로 나눌 때 쓴다.
+ * 문자열 비교와 LIKE 는 H2 기본 collation 과 같이 대소문자를 구분하고, LIKE 의 escape 문자는 '\' 이다.
+ */
+record MemberSearchMatcher(
+        Set<String> usernames,
+        Set<Long> namedTeamIds,
+        Set<Long> teamIds,
+        Integer ageGoe,
+        Integer ageLoe,
+        Pattern usernameLike) {
+
+    static MemberSearchMatcher of(MemberSearchCondition condition, List<Long> namedTeamIds) {
+        return new MemberSearchMatcher(
+                setOf(condition.usernameValues()),
+                setOf(namedTeamIds),
+                setOf(condition.teamIdValues()),
+                condition.ageGoe(),
+                condition.ageLoe(),
+                hasText(condition.usernameLike()) ? likePattern(condition.usernameLike()) : null);
+    }
+
+    boolean matches(MemberTeamDto row) {
+        // SQL 의 IN / LIKE 와 같이 null 은 어떤 값과도 일치하지 않는다.
+        if (usernames != null && (row.username() == null || !usernames.contains(row.username()))) {
+            return false;
+        }
+        if (namedTeamIds != null && (row.teamId() == null || !namedTeamIds.contains(row.teamId()))) {
+            return false;
+        }
+        if (teamIds != null && (row.teamId() == null || !teamIds.contains(row.teamId()))) {
+            return false;
+        }
+        if (ageGoe != null && row.age() < ageGoe) {
+            return false;
+        }
+        if (ageLoe != null && row.age() > ageLoe) {
+            return false;
+        }
+        return usernameLike == null
+                || (row.username() != null && usernameLike.matcher(row.username()).matches());
+    }
+
+    static Pattern likePattern(String like) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < like.length(); i++) {
+            char c = like.charAt(i);
+            if (c == '\\' && i + 1 < like.length()) {
+                regex.append(Pattern.quote(String.valueOf(like.charAt(++i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private static <T> Set<T> setOf(List<T> values) {
+        return values != null ? Set.copyOf(values) : null;
+    }
+}
@@ -0,0 +1,208 @@
+package study.querydsl.domain.member.dao;
+
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import study.querydsl.domain.member.dto.request.MemberSearchCondition;
+import study.querydsl.domain.member.dto.response.MemberTeamDto;
+import study.querydsl.domain.member.dto.response.QMemberTeamDto;
+import study.querydsl.domain.team.dao.TeamNameCache;
+import study.querydsl.global.deadline.QueryDeadline;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.domain.member.domain.QMember.member;
+import static study.querydsl.domain.team.domain.QTeam.team;
+
+/**
+ * search / searchPage 의 JPQL 을 predicate 조합(shape)별로 한 번만 직렬화해 재사용한다.
+ * <p>
+ * 값 대신 {@link Param} 으로 쿼리를 만들어 두고, 호출마다 파라미터만 바인딩한다.
+ * 같은 JPQL 문자열이 재사용되므로 Hibernate 의 query plan cache 도 그대로 적중한다.
+ * 목록 조건은 IN 파라미터 하나로 바인딩하고, 크기별 SQL 은 in_clause_parameter_padding 으로 2 의 거듭제곱 단위로 묶는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberSearchQueryCache {
+
+    @SuppressWarnings("rawtypes")
+    private static final Param<List> USERNAMES = new Param<>(List.class, "usernames");
+    @SuppressWarnings("rawtypes")
+    private static final Param<List> NAMED_TEAM_IDS = new Param<>(List.class, "namedTeamIds");
+    @SuppressWarnings("rawtypes")
+    private static final Param<List> TEAM_IDS = new Param<>(List.class, "teamIds");
+    private static final Param<Integer> AGE_GOE = new Param<>(Integer.class, "ageGoe");
+    private static final Param<Integer> AGE_LOE = new Param<>(Integer.class, "ageLoe");
+    private static final Param<String> USERNAME_LIKE = new Param<>(String.class, "usernameLike");
+    @SuppressWarnings("rawtypes")
+    private static final Param<List> MEMBER_IDS = new Param<>(List.class, "memberIds");
+
+    /**
+     * usernameLike 후보 id 를 trigram 색인에서 얻었는지 여부. 같은 shape 라도 쿼리 구조가 달라지므로 템플릿 키에 포함한다.
+     */
+    private static final int MEMBER_ID_CANDIDATES = 1 << 16;
+
+    private static final QMemberTeamDto PROJECTION =
+            new QMemberTeamDto(
+                    member.id,
+                    member.username,
+                    member.age,
+                    team.id,
+                    team.name);
+
+    private final EntityManager entityManager;
+    private final TeamNameCache teamNameCache;
+    private final UsernameTrigramIndex usernameTrigramIndex;
+    private final QueryDeadline queryDeadline;
+
+    private final Map<Integer, QueryTemplate> contentTemplates = new ConcurrentHashMap<>();
+    private final Map<Integer, QueryTemplate> countTemplates = new ConcurrentHashMap<>();
+
+    public List<MemberTeamDto> fetch(MemberSearchCondition condition) {
+        return fetch(condition, 0, null);
+    }
+
+    public List<MemberTeamDto> fetch(MemberSearchCondition condition, long offset, Long limit) {
+        Query query = contentQuery(condition);
+        if (offset > 0) {
+            query.setFirstResult(Math.toIntExact(offset));
+        }
+        if (limit != null) {
+            query.setMaxResults(Math.toIntExact(limit));
+        }
+
+        List<?> rows = queryDeadline.execute(entityManager, query::getResultList);
+        List<MemberTeamDto> results = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            results.add(toDto(row));
+        }
+        return results;
+    }
+
+    /**
+     * {@link #contentQuery} 결과 한 행을 DTO 로 바꾼다.
+     */
+    public static MemberTeamDto toDto(Object row) {
+        return PROJECTION.newInstance((Object[]) row);
+    }
+
+    public long count(MemberSearchCondition condition) {
+        Query query = bind(countTemplates, this::compileCount, condition);
+        return (Long) queryDeadline.execute(entityManager, query::getSingleResult);
+    }
+
+    public Query contentQuery(MemberSearchCondition condition) {
+        return bind(contentTemplates, this::compileContent, condition);
+    }
+
+    private Query bind(
+            Map<Integer, QueryTemplate> templates,
+            Function<Integer, QueryTemplate> compiler,
+            MemberSearchCondition condition) {
+        List<String> teamNames = condition.teamNameValues();
+        List<Long> namedTeamIds = teamNames != null ? teamNameCache.findTeamIds(teamNames) : null;
+        List<Long> memberIds = hasText(condition.usernameLike())
+                ? usernameTrigramIndex.candidates(condition.usernameLike())
+                : null;
+
+        int key = condition.shape() | (memberIds != null ? MEMBER_ID_CANDIDATES : 0);
+        QueryTemplate template = templates.computeIfAbsent(key, compiler);
+        return queryDeadline.withTimeout(template.bind(entityManager, condition, namedTeamIds, memberIds));
+    }
+
+    private QueryTemplate compileContent(int shape) {
+        // 연관관계 join(member.team) 을 쓰면 member.team.id 가 team 쪽 컬럼으로 번역되어 member 인덱스를 못 탄다.
+        JPAQuery<?> query = new JPAQuery<Void>()
+                .select(PROJECTION)
+                .from(member)
+                .leftJoin(team).on(team.id.eq(member.team.id))
+                .where(predicates(shape));
+        return QueryTemplate.compile(query);
+    }
+
+    private QueryTemplate compileCount(int shape) {
+        // 팀 조건도 member.team_id 로 걸리므로 count 는 team 을 join 하지 않는다.
+        JPAQuery<?> query = new JPAQuery<Void>()
+                .select(member.count())
+                .from(member)
+                .where(predicates(shape));
+        return QueryTemplate.compile(query);
+    }
+
+    private static BooleanExpression[] predicates(int shape) {
+        return new BooleanExpression[]{
+                (shape & MemberSearchCondition.USERNAME) != 0
+                        ? Expressions.booleanTemplate("{0} in {1}", member.username, USERNAMES)
+                        : null,
+                (shape & MemberSearchCondition.TEAM_NAME) != 0
+                        ? Expressions.booleanTemplate("{0} in {1}", member.team.id, NAMED_TEAM_IDS)
+                        : null,
+                (shape & MemberSearchCondition.TEAM_ID) != 0
+                        ? Expressions.booleanTemplate("{0} in {1}", member.team.id, TEAM_IDS)
+                        : null,
+                (shape & MemberSearchCondition.AGE_GOE) != 0 ? member.age.goe(AGE_GOE) : null,
+                (shape & MemberSearchCondition.AGE_LOE) != 0 ? member.age.loe(AGE_LOE) : null,
+                (shape & MemberSearchCondition.USERNAME_LIKE) != 0 ? member.username.like(USERNAME_LIKE) : null,
+                (shape & MEMBER_ID_CANDIDATES) != 0
+                        ? Expressions.booleanTemplate("{0} in {1}", member.id, MEMBER_IDS)
+                        : null
+        };
+    }
+
+    private record QueryTemplate(String jpql, List<Object> constants) {
+
+        static QueryTemplate compile(JPAQuery<?> query) {
+            JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT);
+            serializer.serialize(query.getMetadata(), false, null);
+            return new QueryTemplate(serializer.toString(), List.copyOf(serializer.getConstants()));
+        }
+
+        Query bind(
+                EntityManager entityManager,
+                MemberSearchCondition condition,
+                List<Long> namedTeamIds,
+                List<Long> memberIds) {
+            Map<ParamExpression<?>, Object> params = new HashMap<>();
+            if (condition.usernameValues() != null) {
+                params.put(USERNAMES, condition.usernameValues());
+            }
+            if (namedTeamIds != null) {
+                params.put(NAMED_TEAM_IDS, namedTeamIds);
+            }
+            if (condition.teamIdValues() != null) {
+                params.put(TEAM_IDS, condition.teamIdValues());
+            }
+            if (condition.ageGoe() != null) {
+                params.put(AGE_GOE, condition.ageGoe());
+            }
+            if (condition.ageLoe() != null) {
+                params.put(AGE_LOE, condition.ageLoe());
+            }
+            if (hasText(condition.usernameLike())) {
+                params.put(USERNAME_LIKE, condition.usernameLike());
+            }
+            if (memberIds != null) {
+                params.put(MEMBER_IDS, memberIds);
+            }
+
+            Query query = entityManager.createQuery(jpql);
+            JPAUtil.setConstants(query, constants, params);
+            return query;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package study.querydsl.domain.member.dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 문자열의 3글자 조각(trigram) → id 역색인.
+ * <p>
+ * LIKE 패턴의 와일드카드 사이 고정 문자열에서 trigram 을 뽑아, 그 trigram 을 모두 가진 id 를 후보로 돌려준다.
+ * 후보는 실제 일치 집합의 상위 집합이므로 호출하는 쪽에서 LIKE 로 한 번 더 거른다.
+ * posting 은 정렬된 long 배열이라 박싱 없이 보관하고, 교집합은 가장 작은 posting 을 기준으로 이진 탐색한다.
+ */
+public class TrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Postings> postings = new ConcurrentHashMap<>();
+
+    public void add(long id, String value) {
+        for (String trigram : trigrams(value)) {
+            postings.computeIfAbsent(trigram, key -> new Postings()).add(id);
+        }
+    }
+
+    public void remove(long id, String value) {
+        for (String trigram : trigrams(value)) {
+            Postings found = postings.get(trigram);
+            if (found != null) {
+                found.remove(id);
+            }
+        }
+    }
+
+    /**
+     * @return 후보 id 목록. 패턴에 3글자 이상 고정 문자열이 없거나 후보가 maxCandidates 를 넘으면 null
+     */
+    public List<Long> candidates(String pattern, int maxCandidates) {
+        Set<String> trigrams = patternTrigrams(pattern);
+        if (trigrams == null || trigrams.isEmpty()) {
+            return null;
+        }
+
+        List<Postings> matched = new ArrayList<>(trigrams.size());
+        for (String trigram : trigrams) {
+            Postings found = postings.get(trigram);
+            if (found == null) {
+                return List.of();
+            }
+            matched.add(found);
+        }
+        matched.sort(Comparator.comparingInt(Postings::size));
+
+        long[] candidates = matched.get(0).snapshot(maxCandidates);
+        if (candidates == null) {
+            return null;
+        }
+
+        List<Long> results = new ArrayList<>(candidates.length);
+        for (long id : candidates) {
+            if (containsAll(matched, id)) {
+                results.add(id);
+            }
+        }
+        return results;
+    }
+
+    private static boolean containsAll(List<Postings> matched, long id) {
+        for (int i = 1; i < matched.size(); i++) {
+            if (!matched.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        if (value == null) {
+            return trigrams;
+        }
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            trigrams.add(value.substring(i, i + GRAM));
+        }
+        return trigrams;
+    }
+
+    private static Set<String> patternTrigrams(String pattern) {
+        // 이스케이프 문자가 있으면 고정 문자열을 정확히 나눌 수 없으므로 색인을 쓰지 않는다.
+        if (pattern.indexOf('\\') >= 0) {
+            return null;
+        }
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (String fragment : pattern.split("[%_]")) {
+            trigrams.addAll(trigrams(fragment));
+        }
+        return trigrams;
+    }
+
+    private static class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        synchronized void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertion = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+            ids[insertion] = id;
+            size++;
+        }
+
+        synchronized void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+
+        synchronized boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long[] snapshot(int limit) {
+            return size > limit ? null : Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package study.querydsl.domain.member.dao;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.domain.member.domain.Member;
+import study.querydsl.global.cache.EntityWriteTracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static study.querydsl.domain.member.domain.QMember.member;
+
+/**
+ * Member.username 의 trigram 색인. usernameLike 조건의 후보 id 를 돌려준다.
+ * <p>
+ * 애플리케이션이 뜬 뒤 전체를 한 번 읽어 만들고, 이후에는 이 프로세스에서 커밋된 persist / remove 를 반영하며
+ * rebuild-interval 마다 새로 만들어 바꿔 끼운다.
+ * 벌크 삭제된 id 는 색인에 남을 수 있지만 쿼리에서 걸러지므로 결과에는 영향이 없다.
+ * 색인이 준비되지 않았거나 현재 트랜잭션에 커밋 전 쓰기가 있으면 null 을 돌려 LIKE 로만 찾게 한다.
+ * <p>
+ * 후보는 member.id IN 조건으로 쓰이므로, 다른 인스턴스나 Hibernate 엔티티를 거치지 않은 SQL 로 추가된 member 는
+ * 다음 재생성 전까지 usernameLike 결과에서 빠진다. 따라서 {@link study.querydsl.global.cache.EntityVersion} 과
+ * 마찬가지로 단일 인스턴스에서만 정확하며, 여러 인스턴스로 띄우거나 DB 에 직접 쓰는 배치가 있으면
+ * member.search.username-index.enabled=false 로 끈다.
+ */
+@Slf4j
+@Component
+public class UsernameTrigramIndex {
+
+    private final JPAQueryFactory queryFactory;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityWriteTracker entityWriteTracker;
+    private final boolean enabled;
+    private final int maxCandidates;
+    private final int fetchSize;
+
+    private volatile TrigramIndex index = new TrigramIndex();
+    private volatile TrigramIndex rebuilding;
+    private volatile boolean ready;
+
+    public UsernameTrigramIndex(
+            JPAQueryFactory queryFactory,
+            PlatformTransactionManager transactionManager,
+            EntityWriteTracker entityWriteTracker,
+            @Value("${member.search.username-index.enabled:true}") boolean enabled,
+            @Value("${member.search.username-index.max-candidates:1000}") int maxCandidates,
+            @Value("${member.search.username-index.fetch-size:1000}") int fetchSize) {
+        this.queryFactory = queryFactory;
+        this.transactionManager = transactionManager;
+        this.entityWriteTracker = entityWriteTracker;
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+        this.fetchSize = fetchSize;
+    }
+
+    public List<Long> candidates(String pattern) {
+        if (!enabled || !ready || entityWriteTracker.hasUncommittedWrites()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return null;
+        }
+        return index.candidates(pattern, maxCandidates);
+    }
+
+    public void memberPersisted(Member persisted) {
+        // persist 시점에는 id 가 없을 수 있으므로 커밋 후에 읽는다.
+        afterCommit(target -> target.add(persisted.getId(), persisted.getUsername()));
+    }
+
+    public void memberRemoved(Member removed) {
+        Long id = removed.getId();
+        String username = removed.getUsername();
+        afterCommit(target -> target.remove(id, username));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    /**
+     * 이 프로세스가 감지하지 못한 쓰기가 색인에 빠져 있는 기간을 rebuild-interval 로 제한한다.
+     */
+    @Scheduled(
+            initialDelayString = "${member.search.username-index.rebuild-interval-ms:600000}",
+            fixedDelayString = "${member.search.username-index.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        if (ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 새 색인을 만들어 바꿔 끼운다. 만드는 동안 커밋된 변경은 기존 색인과 새 색인에 모두 반영한다.
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        TrigramIndex next = new TrigramIndex();
+        rebuilding = next;
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        long indexed = readOnlyTransaction.execute(status -> {
+            try (Stream<Tuple> rows =
+                         queryFactory
+                                 .select(member.id, member.username)
+                                 .from(member)
+                                 .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                                 .setHint(HibernateHints.HINT_READ_ONLY, true)
+                                 .stream()) {
+                return rows.peek(row -> next.add(row.get(member.id), row.get(member.username))).count();
+            }
+        });
+        index = next;
+        rebuilding = null;
+        ready = true;
+
+        log.info("username trigram 색인 {} 건 생성 ({} ms)",
+                indexed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void afterCommit(Consumer<TrigramIndex> change) {
+        if (!enabled || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        List<Consumer<TrigramIndex>> changes =
+                (List<Consumer<TrigramIndex>>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            List<Consumer<TrigramIndex>> created = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(UsernameTrigramIndex.this);
+                }
+            });
+            changes = created;
+        }
+        changes.add(change);
+    }
+
+    private void apply(List<Consumer<TrigramIndex>> changes) {
+        // rebuilding 을 먼저 읽어야 바꿔 끼우는 도중이라도 새 색인에 빠지지 않는다.
+        TrigramIndex next = rebuilding;
+        TrigramIndex current = index;
+        changes.forEach(change -> change.accept(current));
+        if (next != null && next != current) {
+            changes.forEach(change -> change.accept(next));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package study.querydsl.domain.member.dao;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import study.querydsl.domain.member.domain.Member;
+
+/**
+ * Member persist / remove 를 {@link UsernameTrigramIndex} 에 전달한다. 엔티티에는 META-INF/orm.xml 로 등록한다.
+ */
+@RequiredArgsConstructor
+public class UsernameTrigramIndexListener {
+
+    private final ObjectProvider<UsernameTrigramIndex> usernameTrigramIndex;
+
+    @PrePersist
+    public void prePersist(Member member) {
+        usernameTrigramIndex.getObject().memberPersisted(member);
+    }
+
+    @PreRemove
+    public void preRemove(Member member) {
+        usernameTrigramIndex.getObject().memberRemoved(member);
+    }
+}
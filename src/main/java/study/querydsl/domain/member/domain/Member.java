@@ -12,11 +12,17 @@ import static jakarta.persistence.FetchType.LAZY;
 
 @Getter
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_member_updated_at_id", columnList = "updated_at desc, member_id desc"),
+        @Index(name = "idx_member_username", columnList = "username"),
+        @Index(name = "idx_member_team_id_age", columnList = "team_id, age"),
+        @Index(name = "idx_member_age", columnList = "age")})
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Member extends BaseTimeEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 100)
     @Column(name = "member_id")
     private Long id;
 
@@ -0,0 +1,7 @@
+package study.querydsl.domain.member.dto.request;
+
+public enum CountMode {
+    NONE,
+    EXACT,
+    ESTIMATED
+}
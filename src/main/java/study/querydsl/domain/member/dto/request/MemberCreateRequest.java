@@ -0,0 +1,7 @@
+package study.querydsl.domain.member.dto.request;
+
+public record MemberCreateRequest(String username, int age, Long teamId) {
+    public static MemberCreateRequest of(String username, int age, Long teamId) {
+        return new MemberCreateRequest(username, age, teamId);
+    }
+}
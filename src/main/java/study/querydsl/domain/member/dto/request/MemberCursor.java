@@ -0,0 +1,42 @@
+package study.querydsl.domain.member.dto.request;
+
+import study.querydsl.domain.member.dto.response.MemberTeamDtoV2;
+import study.querydsl.global.error.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import static org.springframework.util.StringUtils.hasText;
+
+public record MemberCursor(LocalDateTime updatedAt, Long memberId) {
+
+    private static final String DELIMITER = "|";
+
+    public static MemberCursor from(MemberTeamDtoV2 last) {
+        return new MemberCursor(last.updatedAt(), last.memberId());
+    }
+
+    public static MemberCursor decode(String token) {
+        if (!hasText(token)) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int delimiter = decoded.lastIndexOf(DELIMITER);
+            return new MemberCursor(
+                    LocalDateTime.parse(decoded.substring(0, delimiter)),
+                    Long.valueOf(decoded.substring(delimiter + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid member cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String raw = updatedAt + DELIMITER + memberId;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
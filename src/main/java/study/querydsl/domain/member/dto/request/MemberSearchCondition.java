@@ -1,7 +1,128 @@
 package study.querydsl.domain.member.dto.request;
 
-public record MemberSearchCondition(String username, String teamName, Integer ageGoe, Integer ageLoe) {
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * usernameLike 는 SQL LIKE 패턴이다 (예: "mem%", "%ber1%").
+ * <p>
+ * usernames / teamNames 는 username / teamName 과 합쳐 하나의 IN 조건이 되고, teamIds 는 별도의 IN 조건이다.
+ */
+public record MemberSearchCondition(
+        String username, String teamName, Integer ageGoe, Integer ageLoe, String usernameLike,
+        List<String> usernames, List<String> teamNames, List<Long> teamIds) {
+
+    public static final int USERNAME = 1;
+    public static final int TEAM_NAME = 1 << 1;
+    public static final int AGE_GOE = 1 << 2;
+    public static final int AGE_LOE = 1 << 3;
+    public static final int USERNAME_LIKE = 1 << 4;
+    public static final int TEAM_ID = 1 << 5;
+
     public static MemberSearchCondition of(String username, String teamName, Integer ageGoe, Integer ageLoe) {
-        return new MemberSearchCondition(username, teamName, ageGoe, ageLoe);
+        return of(username, teamName, ageGoe, ageLoe, null);
+    }
+
+    public static MemberSearchCondition of(
+            String username, String teamName, Integer ageGoe, Integer ageLoe, String usernameLike) {
+        return of(username, teamName, ageGoe, ageLoe, usernameLike, null, null, null);
+    }
+
+    public static MemberSearchCondition of(
+            String username, String teamName, Integer ageGoe, Integer ageLoe, String usernameLike,
+            List<String> usernames, List<String> teamNames, List<Long> teamIds) {
+        return new MemberSearchCondition(
+                username, teamName, ageGoe, ageLoe, usernameLike, usernames, teamNames, teamIds);
+    }
+
+    /**
+     * 목록은 중복을 없애고 정렬해, 순서만 다른 조건이 같은 캐시 키가 되게 한다.
+     */
+    public MemberSearchCondition normalized() {
+        return new MemberSearchCondition(
+                hasText(username) ? username : null,
+                hasText(teamName) ? teamName : null,
+                ageGoe,
+                ageLoe,
+                hasText(usernameLike) ? usernameLike : null,
+                texts(usernames),
+                texts(teamNames),
+                teamIdValues());
+    }
+
+    /**
+     * username 과 usernames 를 합친 값. 조건이 없으면 null.
+     */
+    public List<String> usernameValues() {
+        return merge(username, usernames);
+    }
+
+    /**
+     * teamName 과 teamNames 를 합친 값. 조건이 없으면 null.
+     */
+    public List<String> teamNameValues() {
+        return merge(teamName, teamNames);
+    }
+
+    public List<Long> teamIdValues() {
+        return teamIds != null
+                ? sorted(teamIds.stream().filter(Objects::nonNull).toList())
+                : null;
+    }
+
+    /**
+     * 값이 지정된 조건 필드를 비트로 나타낸 predicate 조합. 같은 shape 는 같은 쿼리 구조를 가진다.
+     */
+    public int shape() {
+        int shape = 0;
+        if (usernameValues() != null) {
+            shape |= USERNAME;
+        }
+        if (teamNameValues() != null) {
+            shape |= TEAM_NAME;
+        }
+        if (ageGoe != null) {
+            shape |= AGE_GOE;
+        }
+        if (ageLoe != null) {
+            shape |= AGE_LOE;
+        }
+        if (hasText(usernameLike)) {
+            shape |= USERNAME_LIKE;
+        }
+        if (teamIdValues() != null) {
+            shape |= TEAM_ID;
+        }
+        return shape;
+    }
+
+    private static List<String> merge(String value, List<String> values) {
+        List<String> merged = new ArrayList<>();
+        if (hasText(value)) {
+            merged.add(value);
+        }
+        if (values != null) {
+            merged.addAll(values);
+        }
+        return texts(merged);
+    }
+
+    private static List<String> texts(Collection<String> values) {
+        if (values == null) {
+            return null;
+        }
+        return sorted(values.stream().filter(StringUtils::hasText).toList());
+    }
+
+    private static <T extends Comparable<T>> List<T> sorted(List<T> values) {
+        return values.isEmpty()
+                ? null
+                : values.stream().distinct().sorted().toList();
     }
-}
\ No newline at end of file
+}
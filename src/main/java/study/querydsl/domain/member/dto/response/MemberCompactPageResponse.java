@@ -0,0 +1,25 @@
+package study.querydsl.domain.member.dto.response;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.data.domain.Page;
+import study.querydsl.domain.member.dto.request.CountMode;
+
+import java.util.List;
+
+/**
+ * /v3/members 의 압축 응답. 행은 columns 순서의 배열로 쓰고, 페이지 정보는 필요한 값만 담는다.
+ * count 를 생략한 요청(CountMode.NONE)이면 total 은 null 이다.
+ */
+@JsonSerialize(using = MemberCompactSerializers.PageSerializer.class)
+public record MemberCompactPageResponse(
+        List<MemberTeamDto> rows, int page, int size, Long total, boolean hasNext) {
+
+    public static MemberCompactPageResponse from(Page<MemberTeamDto> page, CountMode countMode) {
+        return new MemberCompactPageResponse(
+                page.getContent(),
+                page.getNumber(),
+                page.getSize(),
+                countMode == CountMode.NONE ? null : page.getTotalElements(),
+                page.hasNext());
+    }
+}
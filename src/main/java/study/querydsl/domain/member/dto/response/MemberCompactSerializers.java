@@ -0,0 +1,135 @@
+package study.querydsl.domain.member.dto.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 압축 응답 직렬화기.
+ * <p>
+ * 리플렉션 기반 BeanSerializer 대신 필드를 직접 쓰고, 필드 이름은 미리 인코딩한 {@link SerializedString} 을 재사용한다.
+ * 행은 객체 대신 배열로 써서 행마다 반복되는 필드 이름을 없앤다.
+ */
+final class MemberCompactSerializers {
+
+    private static final SerializableString COLUMNS = new SerializedString("columns");
+    private static final SerializableString ROWS = new SerializedString("rows");
+    private static final SerializableString PAGE = new SerializedString("page");
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString TOTAL = new SerializedString("total");
+    private static final SerializableString HAS_NEXT = new SerializedString("hasNext");
+    private static final SerializableString NEXT_CURSOR = new SerializedString("nextCursor");
+
+    private static final String[] TEAM_COLUMNS = {"memberId", "username", "age", "teamId", "teamName"};
+    private static final String[] TEAM_COLUMNS_V2 =
+            {"memberId", "username", "age", "teamId", "teamName", "updatedAt"};
+
+    private MemberCompactSerializers() {
+    }
+
+    static final class PageSerializer extends StdSerializer<MemberCompactPageResponse> {
+
+        PageSerializer() {
+            super(MemberCompactPageResponse.class);
+        }
+
+        @Override
+        public void serialize(
+                MemberCompactPageResponse value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject();
+            writeColumns(gen, TEAM_COLUMNS);
+
+            List<MemberTeamDto> rows = value.rows();
+            gen.writeFieldName(ROWS);
+            gen.writeStartArray(rows, rows.size());
+            for (MemberTeamDto row : rows) {
+                gen.writeStartArray(row, 5);
+                writeNumber(gen, row.memberId());
+                gen.writeString(row.username());
+                gen.writeNumber(row.age());
+                writeNumber(gen, row.teamId());
+                gen.writeString(row.teamName());
+                gen.writeEndArray();
+            }
+            gen.writeEndArray();
+
+            gen.writeFieldName(PAGE);
+            gen.writeNumber(value.page());
+            gen.writeFieldName(SIZE);
+            gen.writeNumber(value.size());
+            gen.writeFieldName(TOTAL);
+            writeNumber(gen, value.total());
+            gen.writeFieldName(HAS_NEXT);
+            gen.writeBoolean(value.hasNext());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class SliceSerializer extends StdSerializer<MemberCompactSliceResponse> {
+
+        SliceSerializer() {
+            super(MemberCompactSliceResponse.class);
+        }
+
+        @Override
+        public void serialize(
+                MemberCompactSliceResponse value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject();
+            writeColumns(gen, TEAM_COLUMNS_V2);
+
+            List<MemberTeamDtoV2> rows = value.rows();
+            gen.writeFieldName(ROWS);
+            gen.writeStartArray(rows, rows.size());
+            for (MemberTeamDtoV2 row : rows) {
+                gen.writeStartArray(row, 6);
+                writeNumber(gen, row.memberId());
+                gen.writeString(row.username());
+                gen.writeNumber(row.age());
+                writeNumber(gen, row.teamId());
+                gen.writeString(row.teamName());
+                writeDateTime(gen, row.updatedAt());
+                gen.writeEndArray();
+            }
+            gen.writeEndArray();
+
+            gen.writeFieldName(HAS_NEXT);
+            gen.writeBoolean(value.hasNext());
+            gen.writeFieldName(NEXT_CURSOR);
+            gen.writeString(value.nextCursor());
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeColumns(JsonGenerator gen, String[] columns) throws IOException {
+        gen.writeFieldName(COLUMNS);
+        gen.writeArray(columns, 0, columns.length);
+    }
+
+    private static void writeNumber(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    /**
+     * Spring Boot 기본 설정의 JavaTimeModule 과 같은 ISO-8601 문자열로 쓴다.
+     */
+    private static void writeDateTime(JsonGenerator gen, LocalDateTime value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        }
+    }
+}
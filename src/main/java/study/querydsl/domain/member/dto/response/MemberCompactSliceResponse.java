@@ -0,0 +1,16 @@
+package study.querydsl.domain.member.dto.response;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.List;
+
+/**
+ * /v4/members 의 압축 응답. 행은 columns 순서의 배열로 쓴다.
+ */
+@JsonSerialize(using = MemberCompactSerializers.SliceSerializer.class)
+public record MemberCompactSliceResponse(List<MemberTeamDtoV2> rows, boolean hasNext, String nextCursor) {
+
+    public static MemberCompactSliceResponse from(MemberSliceResponse slice) {
+        return new MemberCompactSliceResponse(slice.content(), slice.hasNext(), slice.nextCursor());
+    }
+}
@@ -0,0 +1,12 @@
+package study.querydsl.domain.member.dto.response;
+
+import java.util.List;
+
+public record MemberExportResponse(List<String> files, long rows, long elapsedMillis, long rowsPerSecond) {
+
+    public static MemberExportResponse of(List<String> files, long rows, long elapsedNanos) {
+        long elapsedMillis = elapsedNanos / 1_000_000;
+        long rowsPerSecond = elapsedNanos > 0 ? rows * 1_000_000_000L / elapsedNanos : rows;
+        return new MemberExportResponse(files, rows, elapsedMillis, rowsPerSecond);
+    }
+}
@@ -0,0 +1,17 @@
+package study.querydsl.domain.member.dto.response;
+
+import org.springframework.data.domain.Slice;
+import study.querydsl.domain.member.dto.request.MemberCursor;
+
+import java.util.List;
+
+public record MemberSliceResponse(List<MemberTeamDtoV2> content, boolean hasNext, String nextCursor) {
+
+    public static MemberSliceResponse from(Slice<MemberTeamDtoV2> slice) {
+        List<MemberTeamDtoV2> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? MemberCursor.from(content.get(content.size() - 1)).encode()
+                : null;
+        return new MemberSliceResponse(content, slice.hasNext(), nextCursor);
+    }
+}
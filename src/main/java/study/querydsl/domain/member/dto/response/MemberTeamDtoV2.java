@@ -1,4 +1,7 @@
 package study.querydsl.domain.member.dto.response;
 
-public record MemberTeamDtoV2(Long memberId, String username, int age, Long teamId, String teamName) {
-}
\ No newline at end of file
+import java.time.LocalDateTime;
+
+public record MemberTeamDtoV2(
+        Long memberId, String username, int age, Long teamId, String teamName, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,29 @@
+package study.querydsl.domain.team.api;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.domain.team.application.TeamService;
+import study.querydsl.domain.team.dto.response.TeamStatsDto;
+import study.querydsl.domain.team.dto.response.TeamWithMembersDto;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamService teamService;
+
+    @GetMapping("/v1/teams")
+    public Page<TeamWithMembersDto> teamSearchV1(Pageable pageable) {
+        return teamService.searchTeamsWithMembers(pageable);
+    }
+
+    @GetMapping("/v1/teams/stats")
+    public List<TeamStatsDto> teamStatsV1() {
+        return teamService.findTeamStats();
+    }
+}
@@ -0,0 +1,28 @@
+package study.querydsl.domain.team.application;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.team.dao.TeamRepository;
+import study.querydsl.domain.team.dto.response.TeamStatsDto;
+import study.querydsl.domain.team.dto.response.TeamWithMembersDto;
+
+import java.util.List;
+
+@Transactional(readOnly = true)
+@Service
+@RequiredArgsConstructor
+public class TeamService {
+
+    private final TeamRepository teamRepository;
+
+    public Page<TeamWithMembersDto> searchTeamsWithMembers(Pageable pageable) {
+        return teamRepository.searchWithMembers(pageable);
+    }
+
+    public List<TeamStatsDto> findTeamStats() {
+        return teamRepository.findStats();
+    }
+}
@@ -0,0 +1,42 @@
+package study.querydsl.domain.team.application;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import study.querydsl.domain.member.domain.Member;
+import study.querydsl.domain.team.domain.Team;
+
+import java.util.List;
+
+/**
+ * Team / Member 변경을 {@link TeamStatsRecorder} 에 전달한다.
+ * <p>
+ * Post* 콜백은 flush 때 호출되어 커밋 시점의 flush 에서는 이미 늦으므로, persist / remove 호출 시점의 Pre* 콜백을 쓴다.
+ * Hibernate 가 EntityManagerFactory 를 만드는 도중 Spring 빈 컨테이너로 생성하므로,
+ * EntityManager 에 의존하는 recorder 는 순환 참조를 피하려고 사용할 때 꺼낸다.
+ * 엔티티에는 META-INF/orm.xml 로 등록한다.
+ */
+@RequiredArgsConstructor
+public class TeamStatsEntityListener {
+
+    private final ObjectProvider<TeamStatsRecorder> teamStatsRecorder;
+
+    @PrePersist
+    public void prePersist(Object entity) {
+        if (entity instanceof Team team) {
+            teamStatsRecorder.getObject().teamCreated(team);
+        } else if (entity instanceof Member member && member.getTeam() != null) {
+            teamStatsRecorder.getObject().memberAdded(member.getTeam().getId(), member.getAge());
+        }
+    }
+
+    @PreRemove
+    public void preRemove(Object entity) {
+        if (entity instanceof Team team) {
+            teamStatsRecorder.getObject().teamRemoved(team.getId());
+        } else if (entity instanceof Member member && member.getTeam() != null) {
+            teamStatsRecorder.getObject().recompute(List.of(member.getTeam().getId()));
+        }
+    }
+}
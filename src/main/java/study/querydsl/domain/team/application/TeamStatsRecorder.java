@@ -0,0 +1,202 @@
+package study.querydsl.domain.team.application;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import study.querydsl.domain.team.domain.Team;
+import study.querydsl.domain.team.domain.TeamStats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static study.querydsl.domain.member.domain.QMember.member;
+import static study.querydsl.domain.team.domain.QTeamStats.teamStats;
+import static study.querydsl.domain.team.domain.TeamStats.createTeamStats;
+
+/**
+ * 트랜잭션 동안 팀 통계 변경분을 모아 두었다가 커밋 직전에 team_stats 에 반영한다.
+ * <p>
+ * member 추가는 팀별로 합쳐 update 한 번으로 더하고, 최소 / 최대를 되돌릴 수 없는 삭제나 벌크 연산은
+ * 해당 팀 행을 잠근 뒤 다시 계산한다. 증분 update 는 원자적이므로 동시에 커밋되는 트랜잭션끼리 덮어쓰지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TeamStatsRecorder {
+
+    private final EntityManager entityManager;
+    private final JPAQueryFactory queryFactory;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * persist 직전에는 id 가 없을 수 있으므로 엔티티를 들고 있다가 반영할 때 id 를 읽는다.
+     */
+    public void teamCreated(Team team) {
+        changes().createdTeams.add(team);
+    }
+
+    /**
+     * 삭제된 팀의 통계 행은 커밋 직전에 지운다.
+     */
+    public void teamRemoved(Long teamId) {
+        changes().removedTeamIds.add(teamId);
+    }
+
+    public void memberAdded(Long teamId, int age) {
+        changes().deltas.computeIfAbsent(teamId, id -> new Delta()).add(age);
+    }
+
+    public void recompute(Collection<Long> teamIds) {
+        teamIds.stream()
+                .filter(Objects::nonNull)
+                .forEach(changes().recomputeTeamIds::add);
+    }
+
+    private Changes changes() {
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes != null) {
+            return changes;
+        }
+
+        Assert.state(TransactionSynchronizationManager.isSynchronizationActive(),
+                "팀 통계는 트랜잭션 안에서만 기록할 수 있습니다.");
+
+        Changes created = new Changes();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                apply(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TeamStatsRecorder.this);
+            }
+        });
+        return created;
+    }
+
+    private void apply(Changes changes) {
+        // 쓰기 지연된 insert 의 @PostPersist 까지 모두 모은 뒤 반영한다.
+        entityManager.flush();
+
+        changes.createdTeams.stream()
+                .filter(team -> !changes.removedTeamIds.contains(team.getId()))
+                .forEach(team -> entityManager.persist(createTeamStats(team.getId())));
+        entityManager.flush();
+
+        changes.deltas.forEach((teamId, delta) -> {
+            if (changes.recomputeTeamIds.contains(teamId) || changes.removedTeamIds.contains(teamId)) {
+                return;
+            }
+
+            long updated = queryFactory
+                    .update(teamStats)
+                    .set(teamStats.memberCount, teamStats.memberCount.add(delta.count))
+                    .set(teamStats.ageSum, teamStats.ageSum.add(delta.ageSum))
+                    .set(teamStats.minAge, Expressions.numberTemplate(
+                            Integer.class, "least(coalesce({0}, {1}), {1})", teamStats.minAge, delta.minAge))
+                    .set(teamStats.maxAge, Expressions.numberTemplate(
+                            Integer.class, "greatest(coalesce({0}, {1}), {1})", teamStats.maxAge, delta.maxAge))
+                    .where(teamStats.teamId.eq(teamId))
+                    .execute();
+
+            // 통계 행이 없는 팀(기능 도입 전 데이터)은 새로 계산한다.
+            if (updated == 0) {
+                changes.recomputeTeamIds.add(teamId);
+            }
+        });
+
+        changes.recomputeTeamIds.stream()
+                .filter(teamId -> !changes.removedTeamIds.contains(teamId))
+                .forEach(this::recomputeNow);
+        changes.removedTeamIds.stream()
+                .map(teamId -> entityManager.find(TeamStats.class, teamId))
+                .filter(Objects::nonNull)
+                .forEach(entityManager::remove);
+        entityManager.flush();
+
+        changes.clear();
+    }
+
+    private void recomputeNow(Long teamId) {
+        TeamStats stats = entityManager.find(TeamStats.class, teamId, LockModeType.PESSIMISTIC_WRITE);
+        if (stats == null) {
+            createStatsIfAbsent(teamId);
+            stats = entityManager.find(TeamStats.class, teamId, LockModeType.PESSIMISTIC_WRITE);
+        }
+
+        Tuple aggregate =
+                queryFactory
+                        .select(member.count(), member.age.sum(), member.age.min(), member.age.max())
+                        .from(member)
+                        .where(member.team.id.eq(teamId))
+                        .fetchOne();
+
+        Number ageSum = aggregate.get(1, Number.class);
+        stats.recompute(
+                aggregate.get(0, Long.class),
+                ageSum != null ? ageSum.longValue() : 0,
+                aggregate.get(2, Integer.class),
+                aggregate.get(3, Integer.class));
+    }
+
+    /**
+     * 잠글 행이 없으면 동시에 다시 계산하는 트랜잭션이 모두 insert 해 한쪽이 PK 위반으로 실패한다.
+     * 빈 통계 행을 별도 트랜잭션에서 먼저 커밋해 두고 잠근다. 다른 트랜잭션이 먼저 만들었으면 그 행을 쓴다.
+     */
+    private void createStatsIfAbsent(Long teamId) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transactionTemplate.executeWithoutResult(status -> entityManager.persist(createTeamStats(teamId)));
+        } catch (DataIntegrityViolationException e) {
+            // 다른 트랜잭션이 먼저 만들었다.
+        }
+    }
+
+    private static class Changes {
+        private final List<Team> createdTeams = new ArrayList<>();
+        private final Map<Long, Delta> deltas = new HashMap<>();
+        private final Set<Long> recomputeTeamIds = new LinkedHashSet<>();
+        private final Set<Long> removedTeamIds = new LinkedHashSet<>();
+
+        private void clear() {
+            createdTeams.clear();
+            deltas.clear();
+            recomputeTeamIds.clear();
+            removedTeamIds.clear();
+        }
+    }
+
+    private static class Delta {
+        private long count;
+        private long ageSum;
+        private int minAge = Integer.MAX_VALUE;
+        private int maxAge = Integer.MIN_VALUE;
+
+        private void add(int age) {
+            count++;
+            ageSum += age;
+            minAge = Math.min(minAge, age);
+            maxAge = Math.max(maxAge, age);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package study.querydsl.domain.team.dao;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.querydsl.global.cache.EntityWriteTracker;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toUnmodifiableList;
+import static study.querydsl.domain.team.domain.QTeam.team;
+
+/**
+ * 팀 이름 → 팀 id 목록.
+ * <p>
+ * 팀은 수가 적고 거의 바뀌지 않으므로 전체를 한 번에 읽어 두고, team 쓰기가 감지되면 버린다.
+ * 이름이 유일하다는 보장은 없으므로 id 목록을 돌려준다.
+ * 다른 인스턴스나 Hibernate 를 거치지 않은 SQL 의 쓰기는 감지하지 못하므로, ttl 이 지나면 다시 읽는다.
+ */
+@Component
+public class TeamNameCache {
+
+    private final JPAQueryFactory queryFactory;
+    private final EntityWriteTracker entityWriteTracker;
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlNanos;
+
+    private volatile Loaded loaded;
+
+    public TeamNameCache(
+            JPAQueryFactory queryFactory,
+            EntityWriteTracker entityWriteTracker,
+            @Value("${member.search.cache.ttl:60s}") Duration ttl) {
+        this.queryFactory = queryFactory;
+        this.entityWriteTracker = entityWriteTracker;
+        this.ttlNanos = ttl.toNanos();
+
+        entityWriteTracker.addListener("team", this::invalidateAll);
+    }
+
+    public List<Long> findTeamIds(String teamName) {
+        return findTeamIds(List.of(teamName));
+    }
+
+    public List<Long> findTeamIds(Collection<String> teamNames) {
+        // 아직 커밋되지 않은 팀은 현재 트랜잭션에서만 보여야 하므로 직접 조회한다. flush 전의 팀은 조회 전 auto flush 된다.
+        // 최근 쓰기를 복제하지 못한 replica 에서 전체 목록을 읽어 캐시하지 않도록 그때도 직접 조회한다.
+        if (entityWriteTracker.hasUncommittedWrites() || entityWriteTracker.mayReadStaleReplica()) {
+            return queryFactory
+                    .select(team.id)
+                    .from(team)
+                    .where(team.name.in(teamNames))
+                    .orderBy(team.id.asc())
+                    .fetch();
+        }
+
+        Map<String, List<Long>> cached = teamIdsByName();
+        return teamNames.stream()
+                .flatMap(teamName -> cached.getOrDefault(teamName, List.of()).stream())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        loaded = null;
+    }
+
+    private Map<String, List<Long>> teamIdsByName() {
+        Loaded cached = loaded;
+        if (cached != null && System.nanoTime() - cached.loadedAtNanos() < ttlNanos) {
+            return cached.teamIdsByName();
+        }
+
+        long loadedGeneration = generation.get();
+        long loadedAtNanos = System.nanoTime();
+        Map<String, List<Long>> teamIdsByName =
+                queryFactory
+                        .select(team.name, team.id)
+                        .from(team)
+                        .where(team.name.isNotNull())
+                        .fetch()
+                        .stream()
+                        .collect(groupingBy(
+                                tuple -> tuple.get(team.name),
+                                mapping(tuple -> tuple.get(team.id), toUnmodifiableList())));
+
+        // 조회 도중 무효화가 일어났다면 이전 데이터일 수 있으므로 저장하지 않는다.
+        synchronized (this) {
+            if (loadedGeneration == generation.get()) {
+                loaded = new Loaded(teamIdsByName, loadedAtNanos);
+            }
+        }
+        return teamIdsByName;
+    }
+
+    private record Loaded(Map<String, List<Long>> teamIdsByName, long loadedAtNanos) {
+    }
+}
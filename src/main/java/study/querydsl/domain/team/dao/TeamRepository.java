@@ -0,0 +1,7 @@
+package study.querydsl.domain.team.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import study.querydsl.domain.team.domain.Team;
+
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamRepositoryCustom {
+}
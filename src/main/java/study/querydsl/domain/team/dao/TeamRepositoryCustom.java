@@ -0,0 +1,13 @@
+package study.querydsl.domain.team.dao;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.querydsl.domain.team.dto.response.TeamStatsDto;
+import study.querydsl.domain.team.dto.response.TeamWithMembersDto;
+
+import java.util.List;
+
+public interface TeamRepositoryCustom {
+    Page<TeamWithMembersDto> searchWithMembers(Pageable pageable);
+    List<TeamStatsDto> findStats();
+}
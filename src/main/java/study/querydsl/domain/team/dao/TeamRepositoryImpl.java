@@ -0,0 +1,97 @@
+package study.querydsl.domain.team.dao;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import study.querydsl.domain.team.dto.response.TeamMemberDto;
+import study.querydsl.domain.team.dto.response.TeamStatsDto;
+import study.querydsl.domain.team.dto.response.TeamWithMembersDto;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+import static study.querydsl.domain.member.domain.QMember.member;
+import static study.querydsl.domain.team.domain.QTeam.team;
+import static study.querydsl.domain.team.domain.QTeamStats.teamStats;
+
+@RequiredArgsConstructor
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    @Override
+    public Page<TeamWithMembersDto> searchWithMembers(Pageable pageable) {
+        // 컬렉션 fetch join + 페이징은 메모리에서 페이징되므로, team 을 먼저 페이징하고 member 는 IN 한 번으로 가져온다.
+        List<Tuple> teams =
+                queryFactory
+                        .select(team.id, team.name)
+                        .from(team)
+                        .orderBy(team.id.asc())
+                        .offset(pageable.getOffset())
+                        .limit(pageable.getPageSize())
+                        .fetch();
+
+        List<Long> teamIds = teams.stream()
+                .map(tuple -> tuple.get(team.id))
+                .toList();
+
+        Map<Long, List<TeamMemberDto>> membersByTeamId = findMembersByTeamId(teamIds);
+
+        List<TeamWithMembersDto> results = teams.stream()
+                .map(tuple -> new TeamWithMembersDto(
+                        tuple.get(team.id),
+                        tuple.get(team.name),
+                        membersByTeamId.getOrDefault(tuple.get(team.id), List.of())))
+                .toList();
+
+        return PageableExecutionUtils.getPage(
+                results,
+                pageable,
+                () -> queryFactory
+                        .select(team.count())
+                        .from(team)
+                        .fetchOne());
+    }
+
+    @Override
+    public List<TeamStatsDto> findStats() {
+        // member 전체를 group by 하지 않고 팀 수만큼의 요약 행만 읽는다.
+        return queryFactory
+                .select(teamStats, team.name)
+                .from(teamStats)
+                .join(team).on(team.id.eq(teamStats.teamId))
+                .orderBy(teamStats.teamId.asc())
+                .fetch()
+                .stream()
+                .map(tuple -> TeamStatsDto.of(tuple.get(teamStats), tuple.get(team.name)))
+                .toList();
+    }
+
+    private Map<Long, List<TeamMemberDto>> findMembersByTeamId(List<Long> teamIds) {
+        if (teamIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return queryFactory
+                .select(member.team.id, member.id, member.username, member.age)
+                .from(member)
+                .where(member.team.id.in(teamIds))
+                .orderBy(member.id.asc())
+                .fetch()
+                .stream()
+                .collect(groupingBy(
+                        tuple -> tuple.get(member.team.id),
+                        mapping(
+                                tuple -> new TeamMemberDto(
+                                        tuple.get(member.id),
+                                        tuple.get(member.username),
+                                        tuple.get(member.age)),
+                                toList())));
+    }
+}
@@ -0,0 +1,55 @@
+package study.querydsl.domain.team.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 팀별 member 수 / 나이 합계 / 최소 / 최대 요약.
+ * 평균은 합계와 수로 계산하므로 insert 는 증분으로 반영되고, 삭제나 벌크 연산이 있으면 팀 단위로 다시 계산된다.
+ */
+@Entity
+@Getter
+@Table(name = "team_stats")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class TeamStats {
+
+    @Id
+    @Column(name = "team_id")
+    private Long teamId;
+
+    private long memberCount;
+
+    private long ageSum;
+
+    private Integer minAge;
+
+    private Integer maxAge;
+
+    @Builder(access = AccessLevel.PRIVATE)
+    private TeamStats(Long teamId) {
+        this.teamId = teamId;
+    }
+
+    public static TeamStats createTeamStats(Long teamId) {
+        return TeamStats.builder()
+                .teamId(teamId)
+                .build();
+    }
+
+    public void recompute(long memberCount, long ageSum, Integer minAge, Integer maxAge) {
+        this.memberCount = memberCount;
+        this.ageSum = ageSum;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+
+    public Double getAverageAge() {
+        return memberCount == 0 ? null : (double) ageSum / memberCount;
+    }
+}
@@ -0,0 +1,4 @@
+package study.querydsl.domain.team.dto.response;
+
+public record TeamMemberDto(Long memberId, String username, int age) {
+}
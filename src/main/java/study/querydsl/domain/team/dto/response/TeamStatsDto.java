@@ -0,0 +1,17 @@
+package study.querydsl.domain.team.dto.response;
+
+import study.querydsl.domain.team.domain.TeamStats;
+
+public record TeamStatsDto(
+        Long teamId, String teamName, long memberCount, Double averageAge, Integer minAge, Integer maxAge) {
+
+    public static TeamStatsDto of(TeamStats teamStats, String teamName) {
+        return new TeamStatsDto(
+                teamStats.getTeamId(),
+                teamName,
+                teamStats.getMemberCount(),
+                teamStats.getAverageAge(),
+                teamStats.getMinAge(),
+                teamStats.getMaxAge());
+    }
+}
@@ -0,0 +1,6 @@
+package study.querydsl.domain.team.dto.response;
+
+import java.util.List;
+
+public record TeamWithMembersDto(Long teamId, String teamName, List<TeamMemberDto> members) {
+}
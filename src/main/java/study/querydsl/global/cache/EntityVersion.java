@@ -0,0 +1,56 @@
+package study.querydsl.global.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * member / team 테이블의 버전. 쓰기 SQL 이 나갈 때와 그 트랜잭션이 끝날 때 모두 올라간다.
+ * <p>
+ * 조회 전에 읽은 버전이 다음 요청에서도 같다면 그 사이 커밋된 쓰기가 없다는 뜻이므로,
+ * 버전과 검색 조건으로 만든 ETag 로 조회 자체를 건너뛸 수 있다.
+ * <p>
+ * 버전은 이 프로세스의 Hibernate 가 실행한 SQL 로만 올라가므로 단일 인스턴스에서만 올바르다.
+ * 다른 인스턴스나 Hibernate 를 거치지 않은 SQL 의 쓰기는 감지하지 못하므로, 여러 인스턴스로 띄우거나
+ * DB 를 직접 고치는 배치가 있으면 member.search.conditional-get.enabled=false 로 끈다.
+ * replica 라우팅을 켜면 쓰기 직후의 조회가 아직 쓰기를 반영하지 못한 replica 에서 읽어 이전 결과에 새 버전의 ETag 가
+ * 붙을 수 있으므로, stale-read-window 동안은 {@link #canValidate()} 가 false 여서 ETag 를 쓰지 않는다.
+ * 시작할 때 만든 nonce 를 섞어 재시작 전의 ETag 와는 겹치지 않게 한다.
+ */
+@Component
+public class EntityVersion {
+
+    private final String nonce = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong version = new AtomicLong();
+    private final EntityWriteTracker entityWriteTracker;
+    private final boolean enabled;
+
+    public EntityVersion(
+            EntityWriteTracker entityWriteTracker,
+            @Value("${member.search.conditional-get.enabled:true}") boolean enabled) {
+        this.entityWriteTracker = entityWriteTracker;
+        this.enabled = enabled;
+        entityWriteTracker.addListener(version::incrementAndGet);
+    }
+
+    /**
+     * 지금 ETag 로 응답을 검증하고 내보내도 되는지.
+     */
+    public boolean canValidate() {
+        return enabled && !entityWriteTracker.isWithinStaleReadWindow();
+    }
+
+    /**
+     * 현재 버전과 scope(엔드포인트, 정규화된 조건, 페이지 정보 등)로 만든 ETag.
+     */
+    public String etag(Object... scope) {
+        String digest = DigestUtils.md5DigestAsHex(
+                Arrays.deepToString(scope).getBytes(StandardCharsets.UTF_8));
+        return "\"" + nonce + "-" + version.get() + "-" + digest + "\"";
+    }
+}
@@ -0,0 +1,130 @@
+package study.querydsl.global.cache;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hibernate 가 실행하는 SQL 을 보고 member / team 테이블 쓰기를 감지한다.
+ * <p>
+ * 엔티티 persist / dirty checking / remove 뿐 아니라 Querydsl update / delete 벌크 연산도
+ * 모두 SQL 로 나가므로 한 곳에서 감지할 수 있다. 리스너는 쓰기 시점과 트랜잭션 종료 시점에 각각 호출된다.
+ * 테이블을 지정한 리스너는 그 테이블 쓰기에만 호출된다.
+ * <p>
+ * replica 라우팅을 켜면 읽기 전용 트랜잭션은 아직 쓰기를 복제하지 못한 replica 에서 읽을 수 있다.
+ * 마지막 쓰기 후 stale-read-window 동안은 {@link #mayReadStaleReplica()} 가 true 여서 캐시가 그 결과를 저장하지 않고,
+ * {@link EntityVersion} 도 ETag 를 쓰지 않는다.
+ * 이 프로세스의 쓰기만 보므로 {@link EntityVersion} 과 마찬가지로 단일 인스턴스에서만 정확하다.
+ */
+@Component
+public class EntityWriteTracker implements StatementInspector {
+
+    private static final Pattern WRITE_STATEMENT = Pattern.compile(
+            "^\\s*(insert\\s+into|update|delete\\s+from|merge\\s+into)\\s+(member|team)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Object PENDING_WRITES = new Object();
+
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final long staleReadWindowNanos;
+    private volatile long lastWriteNanos;
+
+    public EntityWriteTracker(
+            @Value("${datasource.routing.enabled:false}") boolean replicaRouting,
+            @Value("${datasource.routing.stale-read-window:10s}") Duration staleReadWindow) {
+        this.staleReadWindowNanos = replicaRouting ? staleReadWindow.toNanos() : 0;
+        this.lastWriteNanos = System.nanoTime() - staleReadWindowNanos;
+    }
+
+    public void addListener(Runnable listener) {
+        listeners.add(table -> listener.run());
+    }
+
+    public void addListener(String table, Runnable listener) {
+        listeners.add(written -> {
+            if (written.equals(table)) {
+                listener.run();
+            }
+        });
+    }
+
+    public boolean hasPendingWrites() {
+        return TransactionSynchronizationManager.hasResource(PENDING_WRITES);
+    }
+
+    /**
+     * 현재 트랜잭션에 다른 트랜잭션이 볼 수 없는 변경이 있을 수 있는지.
+     * persist 한 엔티티는 flush 전까지 SQL 이 나가지 않으므로, 읽기 전용이 아닌 트랜잭션은 모두 그렇다고 본다.
+     */
+    public boolean hasUncommittedWrites() {
+        return hasPendingWrites()
+                || (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    /**
+     * 현재 트랜잭션이 replica 에서 읽고, 그 replica 가 최근 쓰기를 아직 반영하지 못했을 수 있는지.
+     */
+    public boolean mayReadStaleReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && isWithinStaleReadWindow();
+    }
+
+    /**
+     * 트랜잭션과 무관하게, replica 가 최근 쓰기를 아직 반영하지 못했을 수 있는 시간 안인지.
+     */
+    public boolean isWithinStaleReadWindow() {
+        return staleReadWindowNanos > 0 && System.nanoTime() - lastWriteNanos < staleReadWindowNanos;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Matcher matcher = WRITE_STATEMENT.matcher(sql);
+        if (matcher.find()) {
+            onWrite(matcher.group(2).toLowerCase(Locale.ROOT));
+        }
+        return sql;
+    }
+
+    private void onWrite(String table) {
+        notifyListeners(table);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<String> written = (Set<String>) TransactionSynchronizationManager.getResource(PENDING_WRITES);
+        if (written != null) {
+            written.add(table);
+            return;
+        }
+
+        Set<String> tables = ConcurrentHashMap.newKeySet();
+        tables.add(table);
+        TransactionSynchronizationManager.bindResource(PENDING_WRITES, tables);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_WRITES);
+                tables.forEach(EntityWriteTracker.this::notifyListeners);
+            }
+        });
+    }
+
+    private void notifyListeners(String table) {
+        lastWriteNanos = System.nanoTime();
+        listeners.forEach(listener -> listener.accept(table));
+    }
+}
@@ -0,0 +1,106 @@
+package study.querydsl.global.concurrent;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.global.deadline.Deadline;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * 보조 쿼리(count 등)를 별도 스레드 / 별도 커넥션의 읽기 전용 트랜잭션에서 미리 실행한다.
+ * <p>
+ * 호출 스레드의 트랜잭션이 쓰기 가능하면 아직 커밋되지 않은 변경을 다른 커넥션이 볼 수 없으므로 그대로 실행한다.
+ * 요청 하나가 커넥션을 두 개 잡게 되므로, 동시 실행 수를 커넥션 풀보다 작게 제한해 풀 고갈로 인한 교착을 막는다.
+ * 실행기는 Boot 의 applicationTaskExecutor 로, JDK 21 에서 spring.threads.virtual.enabled 이면 가상 스레드를 쓴다.
+ */
+@Component
+public class ParallelQueryExecutor {
+
+    private final AsyncTaskExecutor taskExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Semaphore permits;
+    private final boolean enabled;
+
+    public ParallelQueryExecutor(
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+            AsyncTaskExecutor taskExecutor,
+            PlatformTransactionManager transactionManager,
+            @Value("${member.search.parallel-count.enabled:true}") boolean enabled,
+            @Value("${member.search.parallel-count.max-concurrency:5}") int maxConcurrency) {
+        this.taskExecutor = taskExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.permits = new Semaphore(maxConcurrency);
+        this.enabled = enabled;
+    }
+
+    public LongSupplier submit(LongSupplier query) {
+        if (!enabled || !canRunDetached() || !permits.tryAcquire()) {
+            return query;
+        }
+
+        // 허가는 작업이 끝나거나, 시작 전에 취소되어 실행되지 않을 때 한 번만 반납한다.
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+
+        // 요청의 deadline 은 count 를 실행하는 스레드에도 적용한다.
+        FutureTask<Long> future = new FutureTask<>(Deadline.propagate(() -> {
+            try {
+                return readOnlyTransaction.execute(status -> query.getAsLong());
+            } finally {
+                release.run();
+            }
+        })) {
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    release.run();
+                }
+            }
+        };
+        try {
+            taskExecutor.execute(future);
+        } catch (TaskRejectedException e) {
+            release.run();
+            return query;
+        }
+
+        return () -> join(future);
+    }
+
+    private boolean canRunDetached() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private long join(Future<Long> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("병렬 쿼리 대기 중 인터럽트되었습니다.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
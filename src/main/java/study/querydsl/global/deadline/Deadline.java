@@ -0,0 +1,68 @@
+package study.querydsl.global.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * 요청의 남은 지연 예산. 요청 스레드에 묶어 두고, 다른 스레드로 넘기는 작업은 {@link #propagate} 로 감싼다.
+ * requested 는 클라이언트가 헤더로 정한 예산인지 여부다.
+ */
+public record Deadline(long expiresAtNanos, boolean requested) {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos(), false);
+    }
+
+    public static Deadline requestedAfter(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos(), true);
+    }
+
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static void set(Deadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 현재 스레드의 deadline 을 task 를 실행하는 스레드에도 적용한다.
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        Deadline deadline = current();
+        if (deadline == null) {
+            return task;
+        }
+        return () -> {
+            Deadline previous = current();
+            set(deadline);
+            try {
+                return task.call();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+
+    public long remainingNanos() {
+        return Math.max(expiresAtNanos - System.nanoTime(), 0);
+    }
+
+    public long remainingMillis() {
+        return Duration.ofNanos(remainingNanos()).toMillis();
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() == 0;
+    }
+}
@@ -0,0 +1,19 @@
+package study.querydsl.global.deadline;
+
+import lombok.Getter;
+import org.springframework.dao.QueryTimeoutException;
+
+/**
+ * 요청의 {@link Deadline} 이 지나 쿼리를 실행하지 않았거나 cancel 했다.
+ * requested 이면 클라이언트가 정한 예산이 끝난 것이므로 서버 과부하로 보지 않는다.
+ */
+@Getter
+public class DeadlineExceededException extends QueryTimeoutException {
+
+    private final boolean requested;
+
+    public DeadlineExceededException(Deadline deadline, Throwable cause) {
+        super("요청의 지연 예산을 모두 사용했습니다.", cause);
+        this.requested = deadline.requested();
+    }
+}
@@ -0,0 +1,68 @@
+package study.querydsl.global.deadline;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 요청 헤더의 지연 예산(ms)으로 {@link Deadline} 을 정한다.
+ * 헤더가 없으면 default-budget 을 쓰고(0 이면 제한 없음), 어떤 값이든 max-budget 을 넘지 않는다.
+ */
+@Component
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    public static final String BUDGET_HEADER = "X-Latency-Budget-Ms";
+
+    private final Duration defaultBudget;
+    private final Duration maxBudget;
+
+    public DeadlineInterceptor(
+            @Value("${member.search.deadline.default-budget:0ms}") Duration defaultBudget,
+            @Value("${member.search.deadline.max-budget:30s}") Duration maxBudget) {
+        this.defaultBudget = defaultBudget;
+        this.maxBudget = maxBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        String header = request.getHeader(BUDGET_HEADER);
+        Duration budget = budgetOf(header);
+        if (budget == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid " + BUDGET_HEADER);
+            return false;
+        }
+        if (!budget.isZero()) {
+            Duration bounded = budget.compareTo(maxBudget) > 0 ? maxBudget : budget;
+            Deadline.set(StringUtils.hasText(header) ? Deadline.requestedAfter(bounded) : Deadline.after(bounded));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Deadline.clear();
+    }
+
+    /**
+     * 헤더 값이 양의 정수가 아니면 null.
+     */
+    private Duration budgetOf(String header) {
+        if (!StringUtils.hasText(header)) {
+            return defaultBudget;
+        }
+        try {
+            long millis = Long.parseLong(header.trim());
+            return millis > 0 ? Duration.ofMillis(millis) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package study.querydsl.global.deadline;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 현재 {@link Deadline} 을 쿼리에 적용한다.
+ * <p>
+ * JDBC query timeout 은 초 단위라 남은 시간을 초로 올림해 힌트로 걸고(드라이버 쪽 안전장치),
+ * 정확한 시각에는 별도 스레드에서 Session.cancelQuery 로 실행 중인 Statement 를 cancel 한다.
+ * deadline 이 없으면 아무것도 하지 않는다.
+ */
+@Slf4j
+@Component
+public class QueryDeadline implements DisposableBean {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "query-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public Query withTimeout(Query query) {
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            query.setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, timeoutMillis(deadline));
+        }
+        return query;
+    }
+
+    public <T> JPAQuery<T> withTimeout(JPAQuery<T> query) {
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            query.setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, timeoutMillis(deadline));
+        }
+        return query;
+    }
+
+    /**
+     * deadline 이 지나면 entityManager 에서 실행 중인 쿼리를 cancel 한다. 이미 지났으면 실행하지 않는다.
+     * deadline 이 지난 뒤의 실패는 {@link DeadlineExceededException} 으로 바꿔 던진다.
+     */
+    public <T> T execute(EntityManager entityManager, Supplier<T> execution) {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return execution.get();
+        }
+        if (deadline.isExpired()) {
+            throw new DeadlineExceededException(deadline, null);
+        }
+
+        // 공유 EntityManager 는 스레드에 묶인 세션을 찾으므로 요청 스레드에서 세션을 꺼내 둔다.
+        Cancellation cancellation = new Cancellation(entityManager.unwrap(Session.class));
+        ScheduledFuture<?> scheduled =
+                scheduler.schedule(cancellation::cancel, deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        try {
+            return execution.get();
+        } catch (RuntimeException e) {
+            if (deadline.isExpired()) {
+                throw new DeadlineExceededException(deadline, e);
+            }
+            throw e;
+        } finally {
+            cancellation.complete();
+            scheduled.cancel(false);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private static int timeoutMillis(Deadline deadline) {
+        long seconds = Math.max(TimeUnit.MILLISECONDS.toSeconds(deadline.remainingMillis() + 999), 1);
+        return Math.toIntExact(TimeUnit.SECONDS.toMillis(seconds));
+    }
+
+    /**
+     * 실행 하나의 cancel 과 완료를 같은 lock 으로 묶는다.
+     * 완료 처리는 진행 중인 cancel 이 끝날 때까지 기다리고, 완료된 뒤에는 cancel 하지 않으므로
+     * 같은 세션에서 다음에 실행되는 쿼리가 이 실행의 deadline 으로 cancel 되지 않는다.
+     */
+    private static final class Cancellation {
+
+        private final Session session;
+        private boolean completed;
+
+        Cancellation(Session session) {
+            this.session = session;
+        }
+
+        synchronized void cancel() {
+            if (completed) {
+                return;
+            }
+            try {
+                session.cancelQuery();
+            } catch (RuntimeException e) {
+                // 쿼리가 막 끝나 Statement 가 닫혔으면 cancel 이 실패할 수 있다.
+                log.debug("쿼리 cancel 실패", e);
+            }
+        }
+
+        synchronized void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package study.querydsl.global.error;
+
+/**
+ * 클라이언트가 보낸 값이 잘못되어 처리할 수 없다. 400 으로 응답한다.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
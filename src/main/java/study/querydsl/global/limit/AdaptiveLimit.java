@@ -0,0 +1,80 @@
+package study.querydsl.global.limit;
+
+/**
+ * 관측한 응답 시간으로 동시 실행 한도를 조절한다 (gradient 방식 + 실패 시 AIMD 감소).
+ * <p>
+ * 지연이 평소(longRtt) 수준이면 한도를 queueSize 만큼 늘리고, 지연이 tolerance 배를 넘어 커지면
+ * longRtt / rtt 비율(최소 0.5)로 줄인다. 타임아웃처럼 과부하로 실패한 요청은 backoffRatio 를 곱해 줄인다.
+ * 동시 실행 수가 한도의 절반에도 못 미치면 한도가 병목이 아니므로 늘리지 않는다.
+ */
+public class AdaptiveLimit {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final double backoffRatio;
+
+    private double limit;
+    private double longRtt;
+
+    public AdaptiveLimit(
+            int initialLimit, int minLimit, int maxLimit,
+            double smoothing, double tolerance, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException(
+                    "한도 범위가 올바르지 않습니다: min=" + minLimit + ", max=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.limit = clamp(initialLimit);
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * 요청 하나의 결과를 반영하고 새 한도를 돌려준다.
+     *
+     * @param rttNanos 요청 처리 시간
+     * @param inflight 요청을 시작할 때의 동시 실행 수
+     * @param dropped  과부하(타임아웃, 커넥션 획득 실패 등)로 실패했는지 여부
+     */
+    public synchronized int onSample(long rttNanos, int inflight, boolean dropped) {
+        if (dropped) {
+            limit = clamp(limit * backoffRatio);
+            return (int) limit;
+        }
+
+        if (longRtt == 0) {
+            longRtt = rttNanos;
+        } else {
+            longRtt += (rttNanos - longRtt) * 2 / (LONG_WINDOW + 1);
+        }
+        // 부하가 빠진 뒤에도 예전의 높은 지연을 기준으로 삼지 않도록 기준을 빠르게 낮춘다.
+        if (longRtt / rttNanos > 2) {
+            longRtt *= 0.95;
+        }
+
+        if (inflight < limit / 2) {
+            return (int) limit;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRtt / rttNanos));
+        double queueSize = Math.sqrt(limit);
+        double newLimit = limit * gradient + queueSize;
+        limit = clamp(limit * (1 - smoothing) + newLimit * smoothing);
+        return (int) limit;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
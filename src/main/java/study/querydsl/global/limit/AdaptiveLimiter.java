@@ -0,0 +1,91 @@
+package study.querydsl.global.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * bulkhead 하나의 동시 실행 수를 {@link AdaptiveLimit} 의 한도 안으로 제한한다.
+ * 한도를 넘는 요청은 기다리게 하지 않고 바로 거절한다.
+ * concurrency.limit / concurrency.inflight / concurrency.rejected 를 bulkhead 태그로 기록한다.
+ */
+public class AdaptiveLimiter {
+
+    private final AdaptiveLimit limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Counter rejected;
+
+    public AdaptiveLimiter(String name, AdaptiveLimit limit, MeterRegistry meterRegistry) {
+        this.limit = limit;
+        this.rejected = Counter.builder("concurrency.rejected")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit", limit, AdaptiveLimit::limit)
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.inflight", inflight, AtomicInteger::get)
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+    }
+
+    public Optional<Permit> tryAcquire() {
+        int current;
+        do {
+            current = inflight.get();
+            if (current >= limit.limit()) {
+                rejected.increment();
+                return Optional.empty();
+            }
+        } while (!inflight.compareAndSet(current, current + 1));
+
+        return Optional.of(new Permit(current + 1));
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+
+    public int limit() {
+        return limit.limit();
+    }
+
+    /**
+     * 획득한 실행 권한. 요청이 끝나면 결과에 맞는 메서드를 한 번만 호출한다.
+     */
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+        private final int inflightAtStart;
+
+        private Permit(int inflightAtStart) {
+            this.inflightAtStart = inflightAtStart;
+        }
+
+        public void onSuccess() {
+            release();
+            limit.onSample(System.nanoTime() - startNanos, inflightAtStart, false);
+        }
+
+        /**
+         * 과부하로 실패했다. 한도를 줄인다.
+         */
+        public void onDropped() {
+            release();
+            limit.onSample(System.nanoTime() - startNanos, inflightAtStart, true);
+        }
+
+        /**
+         * 부하와 무관한 실패(잘못된 요청 등)는 한도 계산에 반영하지 않는다.
+         */
+        public void onIgnore() {
+            release();
+        }
+
+        private void release() {
+            inflight.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package study.querydsl.global.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import study.querydsl.global.deadline.DeadlineExceededException;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ConcurrencyLimited} 메서드를 bulkhead 별 {@link AdaptiveLimiter} 로 감싼다.
+ * <p>
+ * 트랜잭션보다 바깥에서 실행해, 거절된 요청은 커넥션을 잡지 않는다.
+ * 한 bulkhead 가 느려져도 다른 bulkhead 의 한도는 줄지 않으므로 커넥션 풀을 함께 고갈시키지 않는다.
+ */
+@Aspect
+@Component
+@Order(0)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@RequiredArgsConstructor
+public class ConcurrencyLimitAspect {
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Around("@annotation(limited)")
+    public Object limit(ProceedingJoinPoint joinPoint, ConcurrencyLimited limited) throws Throwable {
+        if (!properties.enabled()) {
+            return joinPoint.proceed();
+        }
+
+        AdaptiveLimiter limiter = limiter(limited.value());
+        Optional<AdaptiveLimiter.Permit> acquired = limiter.tryAcquire();
+        if (acquired.isEmpty()) {
+            throw new ConcurrencyLimitExceededException(limited.value(), limiter.limit());
+        }
+
+        AdaptiveLimiter.Permit permit = acquired.get();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            if (isOverload(e)) {
+                permit.onDropped();
+            } else {
+                permit.onIgnore();
+            }
+            throw e;
+        }
+        permit.onSuccess();
+        return result;
+    }
+
+    public AdaptiveLimiter limiter(String name) {
+        return limiters.computeIfAbsent(name, key -> {
+            ConcurrencyLimitProperties.Bulkhead bulkhead = properties.bulkhead(key);
+            return new AdaptiveLimiter(
+                    key,
+                    new AdaptiveLimit(
+                            bulkhead.initialLimit(),
+                            bulkhead.minLimit(),
+                            bulkhead.maxLimit(),
+                            bulkhead.smoothing(),
+                            bulkhead.tolerance(),
+                            bulkhead.backoffRatio()),
+                    meterRegistry);
+        });
+    }
+
+    /**
+     * 쿼리 타임아웃, 커넥션 획득 실패처럼 부하 때문에 실패한 경우.
+     * 클라이언트가 정한 지연 예산이 끝나 실패한 것은 클라이언트가 시점을 정하므로 포함하지 않는다.
+     */
+    static boolean isOverload(Throwable e) {
+        if (e instanceof DeadlineExceededException exceeded && exceeded.isRequested()) {
+            return false;
+        }
+        return e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException
+                || e instanceof jakarta.persistence.QueryTimeoutException
+                || e instanceof org.hibernate.QueryTimeoutException;
+    }
+}
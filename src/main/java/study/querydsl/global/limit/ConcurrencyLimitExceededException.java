@@ -0,0 +1,14 @@
+package study.querydsl.global.limit;
+
+import lombok.Getter;
+
+@Getter
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final String bulkhead;
+
+    public ConcurrencyLimitExceededException(String bulkhead, int limit) {
+        super("동시 요청 한도를 초과했습니다: " + bulkhead + " (limit=" + limit + ")");
+        this.bulkhead = bulkhead;
+    }
+}
@@ -0,0 +1,32 @@
+package study.querydsl.global.limit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * {@link ConcurrencyLimited} bulkhead 별 동시 실행 한도 설정. 설정이 없는 bulkhead 는 기본값을 쓴다.
+ */
+@ConfigurationProperties(prefix = "member.search.limit")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue Map<String, Bulkhead> bulkheads) {
+
+    public Bulkhead bulkhead(String name) {
+        return bulkheads.getOrDefault(name, Bulkhead.defaults());
+    }
+
+    public record Bulkhead(
+            @DefaultValue("10") int initialLimit,
+            @DefaultValue("1") int minLimit,
+            @DefaultValue("50") int maxLimit,
+            @DefaultValue("0.2") double smoothing,
+            @DefaultValue("1.5") double tolerance,
+            @DefaultValue("0.9") double backoffRatio) {
+
+        static Bulkhead defaults() {
+            return new Bulkhead(10, 1, 50, 0.2, 1.5, 0.9);
+        }
+    }
+}
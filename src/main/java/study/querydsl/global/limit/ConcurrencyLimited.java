@@ -0,0 +1,20 @@
+package study.querydsl.global.limit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 메서드를 이름이 같은 bulkhead 의 동시 실행 한도 안에서만 실행한다.
+ * 한도를 넘으면 {@link ConcurrencyLimitExceededException} 이 발생한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {
+
+    /**
+     * bulkhead 이름. 같은 이름의 메서드끼리 한도를 공유한다.
+     */
+    String value();
+}
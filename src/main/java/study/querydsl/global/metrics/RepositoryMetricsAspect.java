@@ -0,0 +1,137 @@
+package study.querydsl.global.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import study.querydsl.domain.member.dto.request.MemberSearchCondition;
+
+import java.util.Collection;
+import java.util.StringJoiner;
+
+/**
+ * member 리포지토리 메서드별 지연 시간, 반환 행 수, 실행 SQL 수, 영속성 컨텍스트 크기를
+ * method / shape 태그로 기록한다. /actuator/metrics/member.repository.* 로 조회할 수 있다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final SqlStatementCounter sqlStatementCounter;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Around("execution(public * study.querydsl.domain.member.dao.MemberJpaRepository.*(..))"
+            + " || execution(public * study.querydsl.domain.member.dao.MemberRepositoryImpl.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        Tags tags = Tags.of(
+                "method", joinPoint.getSignature().getDeclaringType().getSimpleName()
+                        + "." + joinPoint.getSignature().getName(),
+                "shape", shapeOf(joinPoint.getArgs()));
+
+        long statementsBefore = sqlStatementCounter.current();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            recordRows(tags, result);
+            return result;
+        } finally {
+            sample.stop(Timer.builder("member.repository.latency")
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+
+            DistributionSummary.builder("member.repository.statements")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(sqlStatementCounter.current() - statementsBefore);
+
+            recordPersistenceContextSize(tags);
+        }
+    }
+
+    private void recordRows(Tags tags, Object result) {
+        long rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof Slice<?> slice) {
+            rows = slice.getNumberOfElements();
+        } else {
+            return;
+        }
+
+        DistributionSummary.builder("member.repository.rows")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(rows);
+    }
+
+    private void recordPersistenceContextSize(Tags tags) {
+        EntityManager entityManager =
+                EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager == null) {
+            return;
+        }
+
+        int managedEntities = entityManager
+                .unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal()
+                .getNumberOfManagedEntities();
+
+        DistributionSummary.builder("member.repository.persistence.context.size")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(managedEntities);
+    }
+
+    private static String shapeOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof MemberSearchCondition condition) {
+                return shapeName(condition.shape());
+            }
+        }
+        return "n/a";
+    }
+
+    private static String shapeName(int shape) {
+        if (shape == 0) {
+            return "none";
+        }
+        StringJoiner joiner = new StringJoiner("+");
+        if ((shape & MemberSearchCondition.USERNAME) != 0) {
+            joiner.add("username");
+        }
+        if ((shape & MemberSearchCondition.TEAM_NAME) != 0) {
+            joiner.add("teamName");
+        }
+        if ((shape & MemberSearchCondition.AGE_GOE) != 0) {
+            joiner.add("ageGoe");
+        }
+        if ((shape & MemberSearchCondition.AGE_LOE) != 0) {
+            joiner.add("ageLoe");
+        }
+        if ((shape & MemberSearchCondition.USERNAME_LIKE) != 0) {
+            joiner.add("usernameLike");
+        }
+        if ((shape & MemberSearchCondition.TEAM_ID) != 0) {
+            joiner.add("teamId");
+        }
+        return joiner.toString();
+    }
+}
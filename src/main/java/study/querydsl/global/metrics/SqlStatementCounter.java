@@ -0,0 +1,33 @@
+package study.querydsl.global.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 현재 스레드에서 Hibernate 가 준비한 SQL 문 수를 센다. 구간 전후 값의 차이로 실행된 SQL 수를 구한다.
+ * 다른 스레드(병렬 count 등)에서 실행된 SQL 까지 세려면 {@link #total()} 을 쓴다.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final LongAdder total = new LongAdder();
+
+    public long current() {
+        return COUNT.get()[0];
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        total.increment();
+        return sql;
+    }
+}
@@ -0,0 +1,221 @@
+package study.querydsl.infra.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 커넥션을 가져간 호출자(caller)별로 획득 대기 시간과 사용 시간을 기록하고, 오래 반납되지 않은 커넥션을 보고한다.
+ * <p>
+ * caller 는 커넥션을 가져간 시점의 스택에서 가장 안쪽의 study.querydsl.domain 프레임(보통 리포지토리 메서드)이다.
+ * 매 획득마다 스택을 안쪽부터 caller 프레임까지만 훑고, StackTraceElement 는 만들지 않는다.
+ * 획득 시점의 애플리케이션 프레임 전체(컨트롤러 → 서비스 → 리포지토리)는 stackSampleInterval 번에 한 번,
+ * 그리고 한 번이라도 누수가 보고된 caller 의 획득에서만 수집한다.
+ * 획득 시점 스택이 없는 누수는 보고할 때 커넥션을 가져간 스레드의 현재 스택을 대신 남긴다.
+ */
+@Slf4j
+public class ConnectionTracker {
+
+    private static final String APPLICATION_PACKAGE = "study.querydsl.";
+    private static final String DOMAIN_PACKAGE = "study.querydsl.domain.";
+    private static final Pattern PROXY_SUFFIX = Pattern.compile("\\$\\$.*$");
+    private static final Pattern LAMBDA = Pattern.compile("^lambda\\$(.+)\\$\\d+$");
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final MeterRegistry meterRegistry;
+    private final Duration leakThreshold;
+    private final int stackSampleInterval;
+    private final Map<Object, Held> held = new ConcurrentHashMap<>();
+    private final Set<String> leakedCallers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong acquisitions = new AtomicLong();
+
+    public ConnectionTracker(MeterRegistry meterRegistry, Duration leakThreshold, int stackSampleInterval) {
+        this.meterRegistry = meterRegistry;
+        this.leakThreshold = leakThreshold;
+        this.stackSampleInterval = stackSampleInterval;
+
+        Gauge.builder("jdbc.connection.held", held, Map::size)
+                .description("애플리케이션이 가져가 아직 반납하지 않은 커넥션 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 커넥션을 얻은 직후 호출한다. 반환값은 반납할 때 {@link #released} 에 넘긴다.
+     */
+    Held acquired(Object connection, long acquireNanos) {
+        String caller = STACK_WALKER.walk(ConnectionTracker::callerOf);
+        List<StackTraceElement> stack = shouldCaptureStack(caller)
+                ? STACK_WALKER.walk(frames -> applicationFrames(frames)
+                        .map(StackWalker.StackFrame::toStackTraceElement)
+                        .toList())
+                : List.of();
+
+        Held holder = new Held(caller, stack, Thread.currentThread(), System.nanoTime());
+        timer("jdbc.connection.acquire", holder.caller()).record(acquireNanos, TimeUnit.NANOSECONDS);
+        held.put(connection, holder);
+        return holder;
+    }
+
+    void released(Object connection, Held holder) {
+        if (held.remove(connection) == null) {
+            return;
+        }
+        timer("jdbc.connection.usage", holder.caller())
+                .record(System.nanoTime() - holder.acquiredAt(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * leakThreshold 보다 오래 잡혀 있는 커넥션을 커넥션마다 한 번씩 보고한다.
+     */
+    @Scheduled(fixedDelayString = "${datasource.tracking.leak-check-interval-ms:5000}")
+    public void detectLeaks() {
+        long now = System.nanoTime();
+        for (Held holder : held.values()) {
+            long heldNanos = now - holder.acquiredAt();
+            if (heldNanos < leakThreshold.toNanos() || holder.reported()) {
+                continue;
+            }
+            // 획득 시점 스택이 없으면 아직 커넥션을 잡고 있는 스레드가 지금 어디에 있는지를 남긴다.
+            boolean acquireStack = !holder.stack().isEmpty();
+            List<StackTraceElement> stack = acquireStack ? holder.stack() : applicationFrames(holder.thread());
+            holder.report(stack);
+            leakedCallers.add(holder.caller());
+
+            Counter.builder("jdbc.connection.leak")
+                    .tag("caller", holder.caller())
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("커넥션이 {} ms 동안 반납되지 않았습니다. caller={}, thread={}, {}{}",
+                    TimeUnit.NANOSECONDS.toMillis(heldNanos),
+                    holder.caller(),
+                    holder.thread().getName(),
+                    acquireStack ? "획득 시점 스택:" : "스레드의 현재 스택:",
+                    stack.isEmpty()
+                            ? " 애플리케이션 프레임 없음 (이 caller 의 이후 획득부터 획득 시점 스택을 수집한다.)"
+                            : stack.stream()
+                                    .map(frame -> "\n\tat " + frame)
+                                    .collect(Collectors.joining()));
+        }
+    }
+
+    private Timer timer(String name, String caller) {
+        return Timer.builder(name)
+                .tag("caller", caller)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private boolean shouldCaptureStack(String caller) {
+        if (leakedCallers.contains(caller)) {
+            return true;
+        }
+        return stackSampleInterval > 0 && acquisitions.incrementAndGet() % stackSampleInterval == 0;
+    }
+
+    private static Stream<StackWalker.StackFrame> applicationFrames(Stream<StackWalker.StackFrame> frames) {
+        return frames.filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                && !isTracking(frame.getClassName()));
+    }
+
+    private static List<StackTraceElement> applicationFrames(Thread thread) {
+        return Arrays.stream(thread.getStackTrace())
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !isTracking(frame.getClassName()))
+                .toList();
+    }
+
+    private static boolean isTracking(String className) {
+        String outerClassName = className.contains("$")
+                ? className.substring(0, className.indexOf('$'))
+                : className;
+        return outerClassName.equals(ConnectionTracker.class.getName())
+                || outerClassName.equals(ConnectionTrackingDataSource.class.getName());
+    }
+
+    /**
+     * 가장 안쪽 domain 프레임에서 멈춘다. domain 프레임이 없으면 가장 안쪽 애플리케이션 프레임을 쓴다.
+     */
+    private static String callerOf(Stream<StackWalker.StackFrame> frames) {
+        StackWalker.StackFrame innermost = null;
+        Iterator<StackWalker.StackFrame> iterator = applicationFrames(frames).iterator();
+        while (iterator.hasNext()) {
+            StackWalker.StackFrame frame = iterator.next();
+            if (frame.getClassName().startsWith(DOMAIN_PACKAGE)) {
+                return nameOf(frame);
+            }
+            if (innermost == null) {
+                innermost = frame;
+            }
+        }
+        return innermost != null ? nameOf(innermost) : "unknown";
+    }
+
+    private static String nameOf(StackWalker.StackFrame frame) {
+        String className = PROXY_SUFFIX.matcher(frame.getClassName()).replaceFirst("");
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        return simpleName + "." + LAMBDA.matcher(frame.getMethodName()).replaceFirst("$1");
+    }
+
+    static final class Held {
+
+        private final String caller;
+        private final List<StackTraceElement> stack;
+        private final Thread thread;
+        private final long acquiredAt;
+        private volatile List<StackTraceElement> reportedStack;
+
+        Held(String caller, List<StackTraceElement> stack, Thread thread, long acquiredAt) {
+            this.caller = caller;
+            this.stack = stack;
+            this.thread = thread;
+            this.acquiredAt = acquiredAt;
+        }
+
+        String caller() {
+            return caller;
+        }
+
+        List<StackTraceElement> stack() {
+            return stack;
+        }
+
+        Thread thread() {
+            return thread;
+        }
+
+        long acquiredAt() {
+            return acquiredAt;
+        }
+
+        boolean reported() {
+            return reportedStack != null;
+        }
+
+        /**
+         * 누수로 보고할 때 남긴 스택. 보고되지 않았으면 null.
+         */
+        List<StackTraceElement> reportedStack() {
+            return reportedStack;
+        }
+
+        void report(List<StackTraceElement> stack) {
+            reportedStack = stack;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package study.querydsl.infra.config.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+
+/**
+ * JPA 가 쓰는 dataSource 빈을 LazyConnectionDataSourceProxy(ConnectionTrackingDataSource(원래 DataSource)) 로 감싼다.
+ * <p>
+ * 트랜잭션 시작이 아니라 첫 SQL 을 실행할 때 실제 커넥션을 가져오므로, 획득 대기와 사용 시간이
+ * 그 SQL 을 실행한 리포지토리 메서드로 기록되고, 캐시에서 끝나는 조회는 풀에서 커넥션을 꺼내지 않는다.
+ * HikariCP 풀 지표(hikaricp.connections.*)는 Spring Boot 가 감싼 DataSource 를 풀어 그대로 등록한다.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ConnectionTrackingProperties.class)
+@ConditionalOnProperty(prefix = "datasource.tracking", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionTrackingConfig {
+
+    private static final String DATA_SOURCE_BEAN_NAME = "dataSource";
+
+    @Bean
+    public ConnectionTracker connectionTracker(
+            MeterRegistry meterRegistry, ConnectionTrackingProperties properties) {
+        return new ConnectionTracker(
+                meterRegistry, properties.leakThreshold(), properties.stackSampleInterval());
+    }
+
+    @Bean
+    public static BeanPostProcessor connectionTrackingDataSourcePostProcessor(
+            ObjectProvider<ConnectionTracker> connectionTracker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!DATA_SOURCE_BEAN_NAME.equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                // replica 라우팅이 켜져 있으면 이미 지연 프록시이므로 그 안쪽을 감싼다.
+                DataSource target = dataSource instanceof LazyConnectionDataSourceProxy lazy
+                        ? lazy.getTargetDataSource()
+                        : dataSource;
+                return new LazyConnectionDataSourceProxy(
+                        new ConnectionTrackingDataSource(target, connectionTracker.getObject()));
+            }
+        };
+    }
+}
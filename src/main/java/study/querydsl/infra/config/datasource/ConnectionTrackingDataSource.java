@@ -0,0 +1,86 @@
+package study.querydsl.infra.config.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 커넥션 획득 시간을 재고, close 될 때까지 {@link ConnectionTracker} 에 등록해 둔다.
+ */
+public class ConnectionTrackingDataSource extends DelegatingDataSource {
+
+    private final ConnectionTracker connectionTracker;
+
+    public ConnectionTrackingDataSource(DataSource targetDataSource, ConnectionTracker connectionTracker) {
+        super(targetDataSource);
+        this.connectionTracker = connectionTracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        return track(super.getConnection(), start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        return track(super.getConnection(username, password), start);
+    }
+
+    private Connection track(Connection connection, long start) {
+        ConnectionTracker.Held holder = connectionTracker.acquired(connection, System.nanoTime() - start);
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionTrackingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new TrackingInvocationHandler(connection, holder));
+    }
+
+    private class TrackingInvocationHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final ConnectionTracker.Held holder;
+
+        TrackingInvocationHandler(Connection target, ConnectionTracker.Held holder) {
+            this.target = target;
+            this.holder = holder;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> connectionTracker.released(target, holder);
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "unwrap" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                }
+                case "isWrapperFor" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                }
+                default -> {
+                }
+            }
+
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package study.querydsl.infra.config.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 커넥션 획득 / 사용 시간 측정과 누수 감지 설정. leakThreshold 보다 오래 반납되지 않은 커넥션을 누수로 보고한다.
+ * 누수 보고용 전체 스택은 stackSampleInterval 번의 획득마다 한 번 수집한다 (0 이면 누수가 보고된 caller 에서만).
+ */
+@ConfigurationProperties(prefix = "datasource.tracking")
+public record ConnectionTrackingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("30s") Duration leakThreshold,
+        @DefaultValue("100") int stackSampleInterval) {
+}
@@ -0,0 +1,75 @@
+package study.querydsl.infra.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 주기적으로 replica 의 복제 지연을 확인해 허용치를 넘거나 연결되지 않는 replica 를 라우팅에서 뺀다.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final Duration maxLag;
+    private final String lagQuery;
+
+    public ReplicaLagMonitor(
+            ReplicaRoutingDataSource routingDataSource, Duration maxLag, String lagQuery) {
+        this.routingDataSource = routingDataSource;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.lag-check-interval-ms:5000}")
+    public void check() {
+        for (Map.Entry<String, DataSource> replica : routingDataSource.replicas().entrySet()) {
+            routingDataSource.setAvailable(replica.getKey(), isAvailable(replica.getKey(), replica.getValue()));
+        }
+    }
+
+    private boolean isAvailable(String replicaKey, DataSource replica) {
+        try (Connection connection = replica.getConnection()) {
+            if (!StringUtils.hasText(lagQuery)) {
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            }
+
+            Duration lag = queryLag(connection);
+            if (lag.compareTo(maxLag) > 0) {
+                log.warn("replica {} 지연 {} 이 허용치 {} 를 넘어 primary 로 우회합니다.", replicaKey, lag, maxLag);
+                return false;
+            }
+            return true;
+        } catch (SQLException e) {
+            log.warn("replica {} 상태 확인에 실패해 primary 로 우회합니다.", replicaKey, e);
+            return false;
+        }
+    }
+
+    private Duration queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(VALIDATION_TIMEOUT_SECONDS);
+            try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    throw new SQLException("lag query 가 결과를 돌려주지 않았습니다: " + lagQuery);
+                }
+                // 복제가 아직 한 번도 적용되지 않은 경우 등 null 이면 지연을 판단할 수 없으므로 사용하지 않는다.
+                double seconds = resultSet.getDouble(1);
+                if (resultSet.wasNull()) {
+                    return Duration.ofSeconds(Long.MAX_VALUE);
+                }
+                return Duration.ofMillis((long) (seconds * 1000));
+            }
+        }
+    }
+}
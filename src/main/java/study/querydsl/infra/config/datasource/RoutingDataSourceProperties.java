@@ -0,0 +1,22 @@
+package study.querydsl.infra.config.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 읽기 전용 트랜잭션을 보낼 replica 목록과 지연 허용치.
+ * lagQuery 는 replica 의 복제 지연(초)을 한 행 한 열로 돌려주는 쿼리로, 비어 있으면 연결 가능 여부만 확인한다.
+ */
+@ConfigurationProperties(prefix = "datasource.routing")
+public record RoutingDataSourceProperties(
+        boolean enabled,
+        @DefaultValue("5s") Duration maxLag,
+        String lagQuery,
+        @DefaultValue List<Replica> replicas) {
+
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -1,9 +1,28 @@
 package study.querydsl.infra.config.jpa;
 
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
+import java.util.List;
+
 @Configuration
 @EnableJpaAuditing
 public class JpaConfig {
-}
\ No newline at end of file
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(
+            List<StatementInspector> statementInspectors) {
+        StatementInspector composite = sql -> {
+            String inspected = sql;
+            for (StatementInspector statementInspector : statementInspectors) {
+                inspected = statementInspector.inspect(inspected);
+            }
+            return inspected;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, composite);
+    }
+}
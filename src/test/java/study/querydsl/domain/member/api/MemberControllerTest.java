@@ -0,0 +1,193 @@
+package study.querydsl.domain.member.api;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+import study.querydsl.domain.team.domain.Team;
+import study.querydsl.global.deadline.DeadlineInterceptor;
+import study.querydsl.global.limit.AdaptiveLimiter;
+import study.querydsl.global.limit.ConcurrencyLimitAspect;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static study.querydsl.domain.member.domain.Member.createMember;
+import static study.querydsl.domain.team.domain.Team.createTeam;
+
+@SpringBootTest
+@Transactional
+class MemberControllerTest {
+
+    @Autowired
+    WebApplicationContext context;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    ConcurrencyLimitAspect concurrencyLimitAspect;
+
+    @Test
+    public void conditionalGet() throws Exception {
+        // 다른 테스트와 같은 컨텍스트를 재사용하도록 @AutoConfigureMockMvc 대신 직접 만든다.
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        Team teamA = createTeam("teamA");
+        entityManager.persist(teamA);
+        entityManager.persist(createMember("member1", 10, teamA));
+        entityManager.flush();
+
+        String etag = mockMvc.perform(get("/v3/members").param("teamName", "teamA"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(get("/v3/members").param("teamName", "teamA")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // 조건이 다르면 ETag 도 다르다.
+        mockMvc.perform(get("/v3/members").param("teamName", "teamB")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        entityManager.persist(createMember("member2", 20, teamA));
+        entityManager.flush();
+
+        mockMvc.perform(get("/v3/members").param("teamName", "teamA")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void degradedCountHasOwnETag() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        Team teamA = createTeam("teamA");
+        entityManager.persist(teamA);
+        entityManager.persist(createMember("member1", 10, teamA));
+        entityManager.flush();
+
+        String full = mockMvc.perform(get("/v3/members").param("teamName", "teamA"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 예산이 count 최소 예산(200ms)보다 작으면 count 를 생략한 응답이 나간다.
+        String degraded = mockMvc.perform(get("/v3/members").param("teamName", "teamA")
+                        .header(DeadlineInterceptor.BUDGET_HEADER, "190"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(degraded).isNotEqualTo(full);
+
+        // 예산이 충분한 요청은 생략된 응답을 재사용하지 않는다.
+        mockMvc.perform(get("/v3/members").param("teamName", "teamA")
+                        .header(HttpHeaders.IF_NONE_MATCH, degraded))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void malformedCursorIsBadRequest() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        mockMvc.perform(get("/v4/members").param("pageSize", "10").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Invalid member cursor")));
+    }
+
+    @Test
+    public void rejectUnboundedBatch() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        mockMvc.perform(post("/v2/members/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"username\":\"member1\"},{}]"))
+                .andExpect(status().isBadRequest());
+
+        String tooMany = "[" + String.join(",", Collections.nCopies(1001, "{\"username\":\"member1\"}")) + "]";
+        mockMvc.perform(post("/v2/members/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(tooMany))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shedLoadPerBulkhead() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        List<AdaptiveLimiter.Permit> permits = occupy("member-page");
+        try {
+            mockMvc.perform(get("/v3/members"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+            // keyset 조회는 별도 bulkhead 라 영향을 받지 않는다.
+            mockMvc.perform(get("/v4/members").param("pageSize", "10"))
+                    .andExpect(status().isOk());
+        } finally {
+            permits.forEach(AdaptiveLimiter.Permit::onIgnore);
+        }
+
+        mockMvc.perform(get("/v3/members"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shedLoadOnUnpagedEndpoints() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        List<AdaptiveLimiter.Permit> permits = new ArrayList<>(occupy("member-list"));
+        permits.addAll(occupy("member-stream"));
+        try {
+            mockMvc.perform(get("/v2/members"))
+                    .andExpect(status().isTooManyRequests());
+            mockMvc.perform(post("/v2/members/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[{}]"))
+                    .andExpect(status().isTooManyRequests());
+            mockMvc.perform(get("/v5/members/stream"))
+                    .andExpect(status().isTooManyRequests());
+            mockMvc.perform(post("/v1/members/export"))
+                    .andExpect(status().isTooManyRequests());
+        } finally {
+            permits.forEach(AdaptiveLimiter.Permit::onIgnore);
+        }
+
+        entityManager.persist(createMember("member1", 10, null));
+        entityManager.flush();
+
+        mockMvc.perform(get("/v5/members/stream").param("username", "member1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"username\":\"member1\"")));
+    }
+
+    /**
+     * bulkhead 의 한도를 모두 점유한다.
+     */
+    private List<AdaptiveLimiter.Permit> occupy(String bulkhead) {
+        AdaptiveLimiter limiter = concurrencyLimitAspect.limiter(bulkhead);
+        List<AdaptiveLimiter.Permit> permits = new ArrayList<>();
+        Optional<AdaptiveLimiter.Permit> permit;
+        while ((permit = limiter.tryAcquire()).isPresent()) {
+            permits.add(permit.get());
+        }
+        return permits;
+    }
+}
@@ -0,0 +1,59 @@
+package study.querydsl.domain.member.application;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.member.dto.request.MemberCreateRequest;
+import study.querydsl.domain.team.domain.Team;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.domain.team.domain.Team.createTeam;
+
+@SpringBootTest
+@Transactional
+class MemberBulkServiceTest {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    MemberBulkService memberBulkService;
+
+    @Test
+    public void saveAll() {
+        Team teamA = createTeam("teamA");
+        Team teamB = createTeam("teamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        List<MemberCreateRequest> requests = IntStream.range(0, 2500)
+                .mapToObj(i -> MemberCreateRequest.of(
+                        "member" + i, i % 100, i % 2 == 0 ? teamA.getId() : teamB.getId()))
+                .toList();
+
+        int saved = memberBulkService.saveAll(requests);
+
+        Long teamACount = entityManager
+                .createQuery("select count(m) from Member m where m.team.name = :name", Long.class)
+                .setParameter("name", "teamA")
+                .getSingleResult();
+
+        assertThat(saved).isEqualTo(2500);
+        assertThat(teamACount).isEqualTo(1250);
+    }
+
+    @Test
+    public void saveAllWithUnknownTeam() {
+        List<MemberCreateRequest> requests =
+                List.of(MemberCreateRequest.of("member1", 10, -1L));
+
+        assertThatThrownBy(() -> memberBulkService.saveAll(requests))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,67 @@
+package study.querydsl.domain.member.application;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import study.querydsl.domain.member.dto.response.MemberTeamDto;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberCsvWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void writeAndRotate() throws IOException {
+        List<Path> files;
+        try (MemberCsvWriter writer = new MemberCsvWriter(directory, "members", 100)) {
+            for (int i = 0; i < 5; i++) {
+                writer.write(new MemberTeamDto((long) i, "member" + i, i, 1L, "team,A"));
+            }
+            files = writer.files();
+        }
+
+        assertThat(files).hasSizeGreaterThan(1);
+        assertThat(Files.readAllLines(files.get(0)))
+                .startsWith("memberId,username,age,teamId,teamName", "0,member0,0,1,\"team,A\"");
+
+        long rows = 0;
+        for (Path file : files) {
+            assertThat(Files.size(file)).isLessThanOrEqualTo(100);
+            rows += Files.readAllLines(file).size() - 1;
+        }
+        assertThat(rows).isEqualTo(5);
+    }
+
+    @Test
+    public void doNotOverwriteExistingFile() throws IOException {
+        new MemberCsvWriter(directory, "members", 100).close();
+
+        assertThatThrownBy(() -> new MemberCsvWriter(directory, "members", 100))
+                .isInstanceOf(FileAlreadyExistsException.class);
+    }
+
+    @Test
+    public void discardWrittenFiles() throws IOException {
+        MemberCsvWriter writer = new MemberCsvWriter(directory, "members", 100);
+        for (int i = 0; i < 5; i++) {
+            writer.write(new MemberTeamDto((long) i, "member" + i, i, 1L, "teamA"));
+        }
+        assertThat(writer.files()).hasSizeGreaterThan(1);
+
+        // 실패한 export 는 이미 닫은 파일과 쓰던 파일을 모두 남기지 않는다.
+        writer.discard();
+
+        try (Stream<Path> remaining = Files.list(directory)) {
+            assertThat(remaining).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package study.querydsl.domain.member.application;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.member.dto.request.MemberSearchCondition;
+import study.querydsl.domain.member.dto.response.MemberExportResponse;
+import study.querydsl.domain.team.domain.Team;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.domain.member.domain.Member.createMember;
+import static study.querydsl.domain.team.domain.Team.createTeam;
+
+@SpringBootTest
+@Transactional
+class MemberExportServiceTest {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    MemberExportService memberExportService;
+
+    @Value("${member.export.directory:${java.io.tmpdir}/member-export}")
+    Path directory;
+
+    @Test
+    public void export() throws IOException {
+        Team teamA = createTeam("teamA");
+        entityManager.persist(teamA);
+        IntStream.range(0, 2500).forEach(i ->
+                entityManager.persist(createMember("member" + i, i % 100, teamA)));
+
+        // 초기화
+        entityManager.flush();
+        entityManager.clear();
+
+        MemberExportResponse response =
+                memberExportService.export(MemberSearchCondition.of(null, "teamA", null, null));
+        MemberExportResponse another =
+                memberExportService.export(MemberSearchCondition.of(null, "teamA", null, null));
+
+        try {
+            assertThat(response.rows()).isEqualTo(2500);
+
+            long lines = 0;
+            for (String file : response.files()) {
+                // 서버 경로를 노출하지 않고 export 디렉터리 기준 이름만 돌려준다.
+                assertThat(Path.of(file).isAbsolute()).isFalse();
+                List<String> content = Files.readAllLines(directory.resolve(file));
+                assertThat(content.get(0)).isEqualTo("memberId,username,age,teamId,teamName");
+                lines += content.size() - 1;
+            }
+            assertThat(lines).isEqualTo(2500);
+
+            // 같은 시각에 시작한 export 도 서로의 파일을 덮어쓰지 않는다.
+            assertThat(another.files()).doesNotContainAnyElementsOf(response.files());
+        } finally {
+            for (String file : response.files()) {
+                Files.deleteIfExists(directory.resolve(file));
+            }
+            for (String file : another.files()) {
+                Files.deleteIfExists(directory.resolve(file));
+            }
+        }
+    }
+}
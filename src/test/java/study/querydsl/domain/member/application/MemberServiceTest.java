@@ -0,0 +1,54 @@
+package study.querydsl.domain.member.application;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import study.querydsl.domain.member.dao.MemberJpaRepository;
+import study.querydsl.domain.member.dao.MemberRepository;
+import study.querydsl.domain.member.dto.request.MemberSearchCondition;
+import study.querydsl.domain.member.dto.response.MemberTeamDto;
+import study.querydsl.global.deadline.Deadline;
+import study.querydsl.global.deadline.QueryDeadline;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class MemberServiceTest {
+
+    QueryDeadline queryDeadline = new QueryDeadline();
+    Session session = mock(Session.class);
+    EntityManager entityManager = mock(EntityManager.class);
+    MemberRepository memberRepository = mock(MemberRepository.class);
+    MemberService memberService = new MemberService(
+            mock(MemberJpaRepository.class), memberRepository, entityManager, queryDeadline);
+
+    @AfterEach
+    void tearDown() {
+        Deadline.clear();
+        queryDeadline.destroy();
+    }
+
+    @Test
+    public void cancelStreamWhileConsuming() {
+        AtomicBoolean closed = new AtomicBoolean();
+        given(entityManager.unwrap(Session.class)).willReturn(session);
+        given(memberRepository.searchStream(any())).willReturn(
+                Stream.of(new MemberTeamDto(1L, "member1", 10, null, null)).onClose(() -> closed.set(true)));
+        Deadline.set(Deadline.after(Duration.ofMillis(50)));
+
+        // 행을 소비하는 동안 deadline 이 지나면 커서를 읽는 쿼리를 cancel 한다.
+        memberService.streamMemberV5(MemberSearchCondition.of(null, null, null, null), row ->
+                verify(session, timeout(1000)).cancelQuery());
+
+        assertThat(closed).isTrue();
+    }
+}
@@ -0,0 +1,64 @@
+package study.querydsl.domain.member.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import study.querydsl.domain.member.dto.request.MemberSearchCondition;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class MemberCountEstimatorTest {
+
+    EntityManager entityManager = mock(EntityManager.class);
+    Query tableRowsQuery = mock(Query.class);
+
+    MemberCountEstimator memberCountEstimator =
+            new MemberCountEstimator(entityManager, Duration.ofMinutes(1), "select 1");
+
+    @BeforeEach
+    void setUp() {
+        given(entityManager.createNativeQuery(anyString())).willReturn(tableRowsQuery);
+        given(tableRowsQuery.getSingleResult()).willReturn(10_000L);
+    }
+
+    @Test
+    public void unknownShapeIsNotEstimated() {
+        assertThat(memberCountEstimator.estimate(MemberSearchCondition.of(null, "teamA", null, null)))
+                .isEmpty();
+        // 조건이 없으면 테이블 행 수 그대로다.
+        assertThat(memberCountEstimator.estimate(MemberSearchCondition.of(null, null, null, null)))
+                .hasValue(10_000);
+    }
+
+    @Test
+    public void estimateByShapeSelectivity() {
+        memberCountEstimator.record(MemberSearchCondition.of(null, "teamA", 20, null), 500);
+
+        // 같은 shape 면 값이 달라도 같은 선택도를 쓴다.
+        assertThat(memberCountEstimator.estimate(MemberSearchCondition.of(null, "teamB", 30, null)))
+                .hasValue(500);
+        // IN 값이 많으면 그만큼 늘린다.
+        assertThat(memberCountEstimator.estimate(MemberSearchCondition.of(
+                null, null, 20, null, null, null, List.of("teamA", "teamB", "teamC"), null)))
+                .hasValue(1500);
+        // shape 가 다르면 추정하지 않는다.
+        assertThat(memberCountEstimator.estimate(MemberSearchCondition.of(null, "teamA", null, null)))
+                .isEmpty();
+    }
+
+    @Test
+    public void smoothObservations() {
+        MemberSearchCondition condition = MemberSearchCondition.of(null, null, 20, 30);
+        memberCountEstimator.record(condition, 1000);
+        memberCountEstimator.record(condition, 2000);
+
+        assertThat(memberCountEstimator.estimate(condition)).hasValue(1300);
+    }
+}
@@ -0,0 +1,163 @@
+package study.querydsl.domain.member.dao;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.member.dto.request.MemberCursor;
+import study.querydsl.domain.member.dto.request.MemberSearchCondition;
+import study.querydsl.domain.team.domain.Team;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.domain.member.domain.Member.createMember;
+import static study.querydsl.domain.team.domain.Team.createTeam;
+
+/**
+ * 16 가지 검색 조건 조합(shape)마다 Hibernate 가 실제로 만든 SQL 을 H2 EXPLAIN 으로 확인한다.
+ * 조건이 하나라도 있는 shape 의 content / count 쿼리는 member 를 전체 스캔하면 안 되고,
+ * keyset slice 쿼리는 조건이 없어도 (updated_at, member_id) 인덱스로 정렬해 읽어야 한다.
+ */
+@SpringBootTest
+@Transactional
+class MemberIndexAdvisorTest {
+
+    private static final int TEAM_COUNT = 20;
+    private static final int MEMBER_COUNT = 5000;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    MemberSearchQueryCache memberSearchQueryCache;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    CapturingStatementInspector capturingStatementInspector;
+
+    @Test
+    public void everyShapeUsesIndex() {
+        seed();
+
+        // shape 0 은 조건이 없어 전체를 읽는 것이 정상이다.
+        for (int shape = 1; shape < 16; shape++) {
+            MemberSearchCondition condition = conditionOf(shape);
+
+            assertThat(explain(captureSql(() -> memberSearchQueryCache.contentQuery(condition).getResultList())))
+                    .as("content shape %d (%s)", shape, condition)
+                    .doesNotContainIgnoringCase("MEMBER.tableScan");
+            assertThat(explain(captureSql(() -> memberSearchQueryCache.count(condition))))
+                    .as("count shape %d (%s)", shape, condition)
+                    .doesNotContainIgnoringCase("MEMBER.tableScan");
+        }
+    }
+
+    @Test
+    public void sliceSeeksByUpdatedAt() {
+        seed();
+
+        MemberCursor cursor = new MemberCursor(LocalDateTime.now(), Long.MAX_VALUE);
+        // 조건이 없으면 seek 인덱스를 정렬 순서대로 읽고 limit 에서 멈춘다.
+        assertThat(explain(captureSql(() -> memberRepository.searchSlice(conditionOf(0), cursor, 10))))
+                .containsIgnoringCase("IDX_MEMBER_UPDATED_AT_ID")
+                .containsIgnoringCase("index sorted");
+
+        for (int shape = 1; shape < 16; shape++) {
+            MemberSearchCondition condition = conditionOf(shape);
+
+            assertThat(explain(captureSql(() -> memberRepository.searchSlice(condition, cursor, 10))))
+                    .as("slice shape %d (%s)", shape, condition)
+                    .doesNotContainIgnoringCase("MEMBER.tableScan");
+        }
+    }
+
+    private void seed() {
+        List<Team> teams = IntStream.range(0, TEAM_COUNT)
+                .mapToObj(i -> createTeam("team" + i))
+                .toList();
+        teams.forEach(entityManager::persist);
+
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            entityManager.persist(createMember("member" + i, i % 100, teams.get(i % TEAM_COUNT)));
+        }
+
+        // 초기화
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private MemberSearchCondition conditionOf(int shape) {
+        return MemberSearchCondition.of(
+                (shape & MemberSearchCondition.USERNAME) != 0 ? "member1" : null,
+                (shape & MemberSearchCondition.TEAM_NAME) != 0 ? "team1" : null,
+                (shape & MemberSearchCondition.AGE_GOE) != 0 ? 90 : null,
+                (shape & MemberSearchCondition.AGE_LOE) != 0 ? 95 : null);
+    }
+
+    /**
+     * 현재 스레드에서 실행한 SQL 중 마지막 것. 팀 이름 조회처럼 앞서 실행되는 SQL 은 건너뛴다.
+     */
+    private String captureSql(Runnable search) {
+        List<String> statements = capturingStatementInspector.capture(search);
+
+        assertThat(statements).isNotEmpty();
+        return statements.get(statements.size() - 1);
+    }
+
+    private String explain(String sql) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        });
+    }
+
+    @TestConfiguration
+    static class CapturingConfig {
+
+        @Bean
+        CapturingStatementInspector capturingStatementInspector() {
+            return new CapturingStatementInspector();
+        }
+    }
+
+    static class CapturingStatementInspector implements StatementInspector {
+
+        private final ThreadLocal<List<String>> captured = new ThreadLocal<>();
+
+        List<String> capture(Runnable work) {
+            List<String> statements = new ArrayList<>();
+            captured.set(statements);
+            try {
+                work.run();
+            } finally {
+                captured.remove();
+            }
+            return statements;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = captured.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -4,19 +4,32 @@ import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Slice;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.querydsl.domain.member.domain.Member;
+import study.querydsl.domain.member.dto.request.CountMode;
+import study.querydsl.domain.member.dto.request.MemberCursor;
 import study.querydsl.domain.member.dto.request.MemberSearchCondition;
 import study.querydsl.domain.member.dto.response.MemberTeamDto;
 import study.querydsl.domain.member.dto.response.MemberTeamDtoV2;
 import study.querydsl.domain.team.domain.Team;
+import study.querydsl.global.deadline.Deadline;
+import study.querydsl.global.metrics.SqlStatementCounter;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static study.querydsl.domain.member.domain.Member.createMember;
 import static study.querydsl.domain.team.domain.Team.createTeam;
 
@@ -30,6 +43,21 @@ class MemberRepositoryTest {
     @Autowired
     private MemberRepository memberRepository;
 
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private MemberCountEstimator memberCountEstimator;
+
+    @Autowired
+    private UsernameTrigramIndex usernameTrigramIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Test
     public void basicTest() {
         Member member = createMember("member1", 10, null);
@@ -74,6 +102,281 @@ class MemberRepositoryTest {
                 .containsExactly("member4");
     }
 
+    @Test
+    public void searchEveryShape() {
+        Team teamA = createTeam("teamA");
+        Team teamB = createTeam("teamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        Member member1 = Member.createMember("member1", 10, teamA);
+        Member member2 = Member.createMember("member2", 20, teamA);
+
+        Member member3 = Member.createMember("member3", 30, teamB);
+        Member member4 = Member.createMember("member4", 40, teamB);
+
+        entityManager.persist(member1);
+        entityManager.persist(member2);
+        entityManager.persist(member3);
+        entityManager.persist(member4);
+
+        for (int shape = 0; shape < 16; shape++) {
+            MemberSearchCondition condition = MemberSearchCondition.of(
+                    (shape & MemberSearchCondition.USERNAME) != 0 ? "member3" : null,
+                    (shape & MemberSearchCondition.TEAM_NAME) != 0 ? "teamB" : null,
+                    (shape & MemberSearchCondition.AGE_GOE) != 0 ? 20 : null,
+                    (shape & MemberSearchCondition.AGE_LOE) != 0 ? 30 : null);
+
+            assertThat(condition.shape()).isEqualTo(shape);
+            assertThat(memberRepository.search(condition))
+                    .containsExactlyInAnyOrderElementsOf(memberJpaRepository.searchByWhereParam(condition));
+            assertThat(memberRepository.searchPage(condition, PageRequest.of(0, 10)).getTotalElements())
+                    .isEqualTo(memberJpaRepository.searchByWhereParam(condition).size());
+        }
+    }
+
+    @Test
+    public void searchReadYourWrites() {
+        MemberSearchCondition condition =
+                MemberSearchCondition.of("unflushed", null, null, null);
+        assertThat(memberRepository.search(condition)).isEmpty();
+
+        // flush 전의 persist 도 같은 트랜잭션의 검색 결과에는 보여야 한다.
+        entityManager.persist(createMember("unflushed", 10, null));
+
+        assertThat(memberRepository.search(condition))
+                .extracting("username")
+                .containsExactly("unflushed");
+        assertThat(memberRepository.searchPage(condition, PageRequest.of(0, 10)).getTotalElements())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void searchUnknownTeamName() {
+        Team teamA = createTeam("teamA");
+        entityManager.persist(teamA);
+        entityManager.persist(createMember("member1", 10, teamA));
+
+        MemberSearchCondition condition =
+                MemberSearchCondition.of(null, "teamC", null, null);
+
+        assertThat(memberRepository.search(condition)).isEmpty();
+        assertThat(memberRepository.searchPage(condition, PageRequest.of(0, 3)).getTotalElements())
+                .isZero();
+        assertThat(memberRepository.searchSlice(condition, null, 3).getContent()).isEmpty();
+    }
+
+    @Test
+    public void searchMultipleValues() {
+        Team teamA = createTeam("teamA");
+        Team teamB = createTeam("teamB");
+        Team teamC = createTeam("teamC");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+        entityManager.persist(teamC);
+        entityManager.persist(createMember("member1", 10, teamA));
+        entityManager.persist(createMember("member2", 20, teamB));
+        entityManager.persist(createMember("member3", 30, teamC));
+
+        MemberSearchCondition byTeamNames = MemberSearchCondition.of(
+                null, "teamA", null, null, null, null, List.of("teamB", "teamD"), null);
+        MemberSearchCondition byTeamIds = MemberSearchCondition.of(
+                null, null, null, null, null, null, null, List.of(teamB.getId(), teamC.getId()));
+        MemberSearchCondition byUsernames = MemberSearchCondition.of(
+                null, "teamC", null, null, null, List.of("member1", "member3"), null, null);
+
+        assertThat(memberRepository.search(byTeamNames))
+                .extracting("username")
+                .containsExactlyInAnyOrder("member1", "member2");
+        assertThat(memberRepository.searchPage(byTeamIds, PageRequest.of(0, 3)).getTotalElements())
+                .isEqualTo(2);
+        assertThat(memberRepository.searchSlice(byUsernames, null, 3).getContent())
+                .extracting("username")
+                .containsExactly("member3");
+    }
+
+    @Test
+    public void searchBatch() {
+        Team teamA = createTeam("teamA");
+        Team teamB = createTeam("teamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+        IntStream.range(0, 20).forEach(i ->
+                entityManager.persist(createMember("member" + i, i * 5, i % 2 == 0 ? teamA : teamB)));
+
+        // 초기화
+        entityManager.flush();
+        entityManager.clear();
+
+        List<MemberSearchCondition> conditions = List.of(
+                MemberSearchCondition.of(null, null, 30, 60),
+                MemberSearchCondition.of("member3", null, null, null),
+                MemberSearchCondition.of(null, null, null, null, "member1%",
+                        null, null, List.of(teamB.getId())),
+                MemberSearchCondition.of(null, null, 40, null, null,
+                        List.of("member1", "member9", "member10"), null, null),
+                MemberSearchCondition.of("nobody", null, null, null));
+
+        long before = sqlStatementCounter.current();
+        List<List<MemberTeamDto>> results = memberRepository.searchBatch(conditions);
+        long statements = sqlStatementCounter.current() - before;
+
+        assertThat(statements).isEqualTo(1);
+        assertThat(results).hasSize(conditions.size());
+        for (int i = 0; i < conditions.size(); i++) {
+            assertThat(results.get(i))
+                    .as("condition %d", i)
+                    .containsExactlyInAnyOrderElementsOf(memberRepository.search(conditions.get(i)));
+        }
+        assertThat(results.get(2))
+                .extracting("username")
+                .containsExactly("member1", "member11", "member13", "member15", "member17", "member19");
+        assertThat(results.get(4)).isEmpty();
+    }
+
+    @Test
+    public void searchBatchBoundsParameters() {
+        Team teamA = createTeam("teamA");
+        entityManager.persist(teamA);
+        IntStream.range(0, 20).forEach(i -> entityManager.persist(createMember("member" + i, i, teamA)));
+        entityManager.flush();
+        entityManager.clear();
+
+        // IN 400 개는 512 개 파라미터로 늘어나 max-parameters(1000) 안에 하나씩만 들어간다.
+        List<MemberSearchCondition> conditions = IntStream.range(0, 3)
+                .mapToObj(i -> MemberSearchCondition.of(null, null, null, null, null,
+                        IntStream.range(0, 400).mapToObj(n -> "member" + (n + i)).toList(), null, null))
+                .toList();
+
+        long before = sqlStatementCounter.current();
+        List<List<MemberTeamDto>> results = memberRepository.searchBatch(conditions);
+
+        assertThat(sqlStatementCounter.current() - before).isEqualTo(3);
+        assertThat(results.get(0)).hasSize(20);
+        assertThat(results.get(2)).hasSize(18);
+    }
+
+    @Test
+    public void searchBatchRunsUnfilteredSeparately() {
+        Team teamA = createTeam("teamA");
+        entityManager.persist(teamA);
+        IntStream.range(0, 5).forEach(i -> entityManager.persist(createMember("member" + i, i * 10, teamA)));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<MemberSearchCondition> conditions = List.of(
+                MemberSearchCondition.of("member1", null, null, null),
+                MemberSearchCondition.of(null, null, null, null),
+                MemberSearchCondition.of(null, null, 30, null));
+
+        long before = sqlStatementCounter.current();
+        List<List<MemberTeamDto>> results = memberRepository.searchBatch(conditions);
+
+        // 조건이 없는 검색 때문에 나머지 조건이 전체를 읽지 않는다.
+        assertThat(sqlStatementCounter.current() - before).isEqualTo(2);
+        assertThat(results.get(0)).extracting("username").containsExactly("member1");
+        assertThat(results.get(1)).hasSize(5);
+        assertThat(results.get(2)).extracting("username").containsExactly("member3", "member4");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void searchUsernameLikeByIndex() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        List<Long> ids = transaction.execute(status -> {
+            Member alice = createMember("zeta-alice", 10, null);
+            Member alicia = createMember("zeta-alicia", 20, null);
+            entityManager.persist(alice);
+            entityManager.persist(alicia);
+            entityManager.persist(createMember("zeta-bob", 30, null));
+            return List.of(alice.getId(), alicia.getId());
+        });
+        // 엔티티 리스너를 거치지 않은 쓰기는 색인이 알지 못한다.
+        transaction.executeWithoutResult(status -> entityManager.createNativeQuery(
+                        "insert into member (member_id, username, age, updated_at) values (?, ?, ?, ?)")
+                .setParameter(1, 9_000_000_001L)
+                .setParameter(2, "zeta-alina")
+                .setParameter(3, 40)
+                .setParameter(4, LocalDateTime.now())
+                .executeUpdate());
+
+        try {
+            MemberSearchCondition condition = MemberSearchCondition.of(null, null, null, null, "zeta-ali%");
+
+            readOnlyTransaction.executeWithoutResult(status -> {
+                // 커밋된 데이터를 읽는 읽기 전용 트랜잭션에서는 후보 id IN 으로 거른다.
+                assertThat(usernameTrigramIndex.candidates("zeta-ali%")).containsExactlyInAnyOrderElementsOf(ids);
+                assertThat(memberRepository.search(condition))
+                        .extracting("username")
+                        .containsExactlyInAnyOrder("zeta-alice", "zeta-alicia");
+            });
+
+            // 재생성하면 색인이 DB 를 따라잡는다.
+            usernameTrigramIndex.rebuild();
+            readOnlyTransaction.executeWithoutResult(status ->
+                    assertThat(memberRepository.searchPage(condition, PageRequest.of(0, 10)).getContent())
+                            .extracting("username")
+                            .containsExactlyInAnyOrder("zeta-alice", "zeta-alicia", "zeta-alina"));
+        } finally {
+            transaction.executeWithoutResult(status -> {
+                entityManager.createNativeQuery("delete from member where username like 'zeta-%'").executeUpdate();
+            });
+            usernameTrigramIndex.rebuild();
+        }
+    }
+
+    @Test
+    public void searchUsernameLike() {
+        Team teamA = createTeam("teamA");
+        entityManager.persist(teamA);
+        entityManager.persist(createMember("alice", 10, teamA));
+        entityManager.persist(createMember("alicia", 20, teamA));
+        entityManager.persist(createMember("bob", 30, teamA));
+
+        assertThat(memberRepository.search(MemberSearchCondition.of(null, null, null, null, "ali%")))
+                .extracting("username")
+                .containsExactlyInAnyOrder("alice", "alicia");
+        assertThat(memberRepository.searchPage(
+                MemberSearchCondition.of(null, null, 15, null, "%lic%"), PageRequest.of(0, 3)))
+                .extracting("username")
+                .containsExactly("alicia");
+        assertThat(memberRepository.searchSlice(
+                MemberSearchCondition.of(null, null, null, null, "%ob"), null, 3).getContent())
+                .extracting("username")
+                .containsExactly("bob");
+    }
+
+    @Test
+    public void searchStream() {
+        Team teamA = createTeam("teamA");
+        Team teamB = createTeam("teamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        Member member1 = Member.createMember("member1", 10, teamA);
+        Member member2 = Member.createMember("member2", 20, teamA);
+
+        Member member3 = Member.createMember("member3", 30, teamB);
+        Member member4 = Member.createMember("member4", 40, teamB);
+
+        entityManager.persist(member1);
+        entityManager.persist(member2);
+        entityManager.persist(member3);
+        entityManager.persist(member4);
+
+        MemberSearchCondition condition =
+                MemberSearchCondition.of(null, "teamB", null, null);
+
+        try (Stream<MemberTeamDto> result = memberRepository.searchStream(condition)) {
+            assertThat(result)
+                    .extracting("username")
+                    .containsExactly("member3", "member4");
+        }
+    }
+
     @Test
     public void searchPage() {
         Team teamA = createTeam("teamA");
@@ -105,6 +408,122 @@ class MemberRepositoryTest {
                 .containsExactly("member1", "member2", "member3");
     }
 
+    @Test
+    public void searchPageCountMode() {
+        Team teamA = createTeam("teamA");
+        Team teamB = createTeam("teamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        Member member1 = Member.createMember("member1", 10, teamA);
+        Member member2 = Member.createMember("member2", 20, teamA);
+
+        Member member3 = Member.createMember("member3", 30, teamB);
+        Member member4 = Member.createMember("member4", 40, teamB);
+
+        entityManager.persist(member1);
+        entityManager.persist(member2);
+        entityManager.persist(member3);
+        entityManager.persist(member4);
+
+        MemberSearchCondition condition =
+                MemberSearchCondition.of(null, "teamB", null, null);
+
+        PageRequest pageRequest = PageRequest.of(0, 1);
+
+        Page<MemberTeamDto> withoutCount =
+                memberRepository.searchPage(condition, pageRequest, CountMode.NONE);
+
+        assertThat(withoutCount.getContent())
+                .extracting("username")
+                .containsExactly("member3");
+        assertThat(withoutCount.hasNext()).isTrue();
+
+        Page<MemberTeamDto> estimated =
+                memberRepository.searchPage(condition, pageRequest, CountMode.ESTIMATED);
+
+        // 추정치는 다음 페이지가 있다는 사실과 모순되지 않는다.
+        assertThat(estimated.getTotalElements()).isGreaterThanOrEqualTo(2);
+        assertThat(estimated.hasNext()).isTrue();
+
+        Page<MemberTeamDto> lastPage =
+                memberRepository.searchPage(condition, PageRequest.of(1, 1), CountMode.ESTIMATED);
+
+        // 마지막 페이지면 total 이 정확히 정해진다.
+        assertThat(lastPage.getTotalElements()).isEqualTo(2);
+        assertThat(lastPage.hasNext()).isFalse();
+    }
+
+    @Test
+    @Transactional(readOnly = true)
+    public void searchPageSkipsCountOnShortPage() throws InterruptedException {
+        // 읽기 전용 트랜잭션이라 count 를 다른 커넥션에서 병렬로 실행할 수 있는 상황이다.
+        IntStream.range(0, 3).forEach(i ->
+                entityManager.persist(createMember("short-page", i * 10, null)));
+        entityManager.flush();
+
+        MemberSearchCondition condition =
+                MemberSearchCondition.of("short-page", null, null, null);
+        memberCountEstimator.estimate(condition);
+
+        long before = sqlStatementCounter.total();
+        Page<MemberTeamDto> result =
+                memberRepository.searchPage(condition, PageRequest.of(0, 10), CountMode.EXACT);
+        // 병렬로 제출된 count 가 있었다면 끝날 시간을 준 뒤 센다.
+        Thread.sleep(200);
+        long statements = sqlStatementCounter.total() - before;
+
+        // 첫 페이지가 pageSize 보다 짧으면 total 이 정해지므로 count 를 실행하지 않는다.
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    public void searchPageCountWithinDeadline() {
+        Team teamA = createTeam("teamA");
+        entityManager.persist(teamA);
+        IntStream.range(0, 3).forEach(i ->
+                entityManager.persist(createMember("member" + i, i * 10, teamA)));
+
+        MemberSearchCondition condition =
+                MemberSearchCondition.of(null, "teamA", null, null);
+        PageRequest pageRequest = PageRequest.of(0, 1);
+
+        // 남은 예산이 count 최소 예산보다 작으면 count 대신 추정치를 쓴다.
+        Deadline.set(Deadline.after(Duration.ofMillis(150)));
+        try {
+            CountMode countMode = memberRepository.countModeWithinDeadline(condition, CountMode.EXACT);
+            assertThat(countMode).isEqualTo(CountMode.ESTIMATED);
+
+            Page<MemberTeamDto> result =
+                    memberRepository.searchPage(condition, pageRequest, countMode);
+
+            assertThat(result.getContent()).hasSize(1);
+            assertThat(result.hasNext()).isTrue();
+            assertThat(result.getTotalElements()).isGreaterThanOrEqualTo(2);
+        } finally {
+            Deadline.clear();
+        }
+
+        Page<MemberTeamDto> exact =
+                memberRepository.searchPage(condition, pageRequest, CountMode.EXACT);
+        assertThat(exact.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    public void searchAfterDeadline() {
+        entityManager.persist(createMember("member1", 10, null));
+
+        Deadline.set(Deadline.after(Duration.ZERO));
+        try {
+            assertThatThrownBy(() -> memberRepository.searchSlice(
+                    MemberSearchCondition.of(null, null, null, null), null, 2))
+                    .isInstanceOf(QueryTimeoutException.class);
+        } finally {
+            Deadline.clear();
+        }
+    }
+
     @Test
     public void searchSlice() {
         Team teamA = createTeam("teamA");
@@ -134,16 +553,59 @@ class MemberRepositoryTest {
         assertThat(result.isLast()).isFalse();
         assertThat(result)
                 .extracting("memberId")
-                .containsExactly(4L, 3L);
+                .containsExactly(member4.getId(), member3.getId());
 
+        MemberCursor cursor = MemberCursor.from(result.getContent().get(1));
         Slice<MemberTeamDtoV2> lastResult =
-                memberRepository.searchSlice(condition, 3L, 2);
+                memberRepository.searchSlice(condition, MemberCursor.decode(cursor.encode()), 2);
 
         assertThat(lastResult.getSize()).isEqualTo(2);
         assertThat(lastResult.hasNext()).isFalse();
         assertThat(lastResult.isLast()).isTrue();
         assertThat(lastResult)
                 .extracting("memberId")
-                .containsExactly(2L, 1L);
+                .containsExactly(member2.getId(), member1.getId());
+    }
+
+    @Test
+    public void bulkAddAge() {
+        Team teamA = createTeam("teamA");
+        Team teamB = createTeam("teamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        Member member1 = createMember("member1", 10, teamA);
+        entityManager.persist(member1);
+        IntStream.range(0, 5).forEach(i ->
+                entityManager.persist(createMember("member" + (i + 2), 20 + i, teamB)));
+
+        MemberSearchCondition condition =
+                MemberSearchCondition.of(null, "teamB", null, null);
+
+        long affected = memberRepository.bulkAddAge(condition, 1, 2);
+
+        assertThat(affected).isEqualTo(5);
+        assertThat(memberRepository.search(condition))
+                .extracting("age")
+                .containsExactlyInAnyOrder(21, 22, 23, 24, 25);
+        assertThat(memberRepository.findById(member1.getId()).get().getAge()).isEqualTo(10);
+    }
+
+    @Test
+    public void bulkDelete() {
+        Team teamA = createTeam("teamA");
+        entityManager.persist(teamA);
+        IntStream.range(0, 7).forEach(i ->
+                entityManager.persist(createMember("member" + i, i * 10, teamA)));
+
+        MemberSearchCondition condition =
+                MemberSearchCondition.of(null, null, 20, null);
+
+        long affected = memberRepository.bulkDelete(condition, 3);
+
+        assertThat(affected).isEqualTo(5);
+        assertThat(memberRepository.findAll())
+                .extracting("username")
+                .containsExactlyInAnyOrder("member0", "member1");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,92 @@
+package study.querydsl.domain.member.dao;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.global.cache.EntityWriteTracker;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberSearchCacheTest {
+
+    EntityWriteTracker entityWriteTracker = new EntityWriteTracker(false, Duration.ZERO);
+
+    MemberSearchCache memberSearchCache =
+            new MemberSearchCache(entityWriteTracker, new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1));
+
+    @Test
+    public void cacheHit() {
+        AtomicInteger loads = new AtomicInteger();
+
+        memberSearchCache.get("key", () -> List.of(loads.incrementAndGet()));
+        List<Integer> result = memberSearchCache.get("key", () -> List.of(loads.incrementAndGet()));
+
+        assertThat(result).containsExactly(1);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidateOnBulkUpdate() {
+        AtomicInteger loads = new AtomicInteger();
+        memberSearchCache.get("key", () -> List.of(loads.incrementAndGet()));
+
+        entityWriteTracker.inspect("update member m1_0 set age=(m1_0.age+cast(? as integer))");
+
+        List<Integer> result = memberSearchCache.get("key", () -> List.of(loads.incrementAndGet()));
+        assertThat(result).containsExactly(2);
+    }
+
+    @Test
+    public void ignoreUnrelatedStatements() {
+        AtomicInteger loads = new AtomicInteger();
+        memberSearchCache.get("key", () -> List.of(loads.incrementAndGet()));
+
+        entityWriteTracker.inspect("select m1_0.member_id from member m1_0");
+        entityWriteTracker.inspect("insert into member_audit (member_id) values (?)");
+
+        List<Integer> result = memberSearchCache.get("key", () -> List.of(loads.incrementAndGet()));
+        assertThat(result).containsExactly(1);
+    }
+
+    @Test
+    public void doNotCacheReplicaReadsRightAfterWrite() {
+        EntityWriteTracker routingTracker = new EntityWriteTracker(true, Duration.ofMinutes(1));
+        MemberSearchCache routingCache =
+                new MemberSearchCache(routingTracker, new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            routingCache.get("key", () -> List.of(loads.incrementAndGet()));
+            routingCache.get("key", () -> List.of(loads.incrementAndGet()));
+            assertThat(loads.get()).isEqualTo(1);
+
+            routingTracker.inspect("update member m1_0 set age=(m1_0.age+cast(? as integer))");
+
+            // replica 가 쓰기를 반영하지 못했을 수 있으므로 매번 다시 읽는다.
+            routingCache.get("key", () -> List.of(loads.incrementAndGet()));
+            routingCache.get("key", () -> List.of(loads.incrementAndGet()));
+            assertThat(loads.get()).isEqualTo(3);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    @Test
+    public void expireAfterTtl() throws InterruptedException {
+        MemberSearchCache expiringCache = new MemberSearchCache(
+                entityWriteTracker, new SimpleMeterRegistry(), true, 100, Duration.ofMillis(50));
+        AtomicInteger loads = new AtomicInteger();
+        expiringCache.get("key", () -> List.of(loads.incrementAndGet()));
+
+        // 이 프로세스가 감지하지 못한 쓰기도 ttl 이 지나면 반영된다.
+        Thread.sleep(100);
+
+        List<Integer> result = expiringCache.get("key", () -> List.of(loads.incrementAndGet()));
+        assertThat(result).containsExactly(2);
+    }
+}
@@ -0,0 +1,42 @@
+package study.querydsl.domain.member.dao;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    TrigramIndex trigramIndex = new TrigramIndex();
+
+    @Test
+    public void candidates() {
+        trigramIndex.add(1L, "member1");
+        trigramIndex.add(2L, "member2");
+        trigramIndex.add(3L, "alice");
+
+        assertThat(trigramIndex.candidates("mem%", 10)).containsExactly(1L, 2L);
+        assertThat(trigramIndex.candidates("%ber2", 10)).containsExactly(2L);
+        assertThat(trigramIndex.candidates("%lic%", 10)).containsExactly(3L);
+        assertThat(trigramIndex.candidates("%xyz%", 10)).isEmpty();
+    }
+
+    @Test
+    public void remove() {
+        trigramIndex.add(1L, "member1");
+        trigramIndex.add(2L, "member2");
+
+        trigramIndex.remove(1L, "member1");
+
+        assertThat(trigramIndex.candidates("mem%", 10)).containsExactly(2L);
+    }
+
+    @Test
+    public void unusablePattern() {
+        trigramIndex.add(1L, "member1");
+        trigramIndex.add(2L, "member2");
+
+        // 3글자 이상 고정 문자열이 없거나 후보가 너무 많으면 색인을 쓰지 않는다.
+        assertThat(trigramIndex.candidates("m%1", 10)).isNull();
+        assertThat(trigramIndex.candidates("mem%", 1)).isNull();
+    }
+}
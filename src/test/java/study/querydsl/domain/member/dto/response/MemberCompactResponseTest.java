@@ -0,0 +1,47 @@
+package study.querydsl.domain.member.dto.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import study.querydsl.domain.member.dto.request.CountMode;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberCompactResponseTest {
+
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    public void page() throws Exception {
+        PageImpl<MemberTeamDto> page = new PageImpl<>(
+                List.of(
+                        new MemberTeamDto(1L, "member1", 10, 1L, "teamA"),
+                        new MemberTeamDto(2L, "member\"2", 20, null, null)),
+                PageRequest.of(0, 2),
+                5);
+
+        assertThat(objectMapper.writeValueAsString(MemberCompactPageResponse.from(page, CountMode.EXACT)))
+                .isEqualTo("{\"columns\":[\"memberId\",\"username\",\"age\",\"teamId\",\"teamName\"],"
+                        + "\"rows\":[[1,\"member1\",10,1,\"teamA\"],[2,\"member\\\"2\",20,null,null]],"
+                        + "\"page\":0,\"size\":2,\"total\":5,\"hasNext\":true}");
+        assertThat(objectMapper.writeValueAsString(MemberCompactPageResponse.from(page, CountMode.NONE)))
+                .contains("\"total\":null");
+    }
+
+    @Test
+    public void slice() throws Exception {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 2, 3, 4);
+        MemberCompactSliceResponse slice = MemberCompactSliceResponse.from(new MemberSliceResponse(
+                List.of(new MemberTeamDtoV2(1L, "member1", 10, 1L, "teamA", updatedAt)), false, null));
+
+        assertThat(objectMapper.writeValueAsString(slice))
+                .isEqualTo("{\"columns\":[\"memberId\",\"username\",\"age\",\"teamId\",\"teamName\",\"updatedAt\"],"
+                        + "\"rows\":[[1,\"member1\",10,1,\"teamA\",\"2024-01-02T03:04:00\"]],"
+                        + "\"hasNext\":false,\"nextCursor\":null}");
+    }
+}
@@ -0,0 +1,162 @@
+package study.querydsl.domain.team.application;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.domain.member.dao.MemberRepository;
+import study.querydsl.domain.member.domain.Member;
+import study.querydsl.domain.member.dto.request.MemberSearchCondition;
+import study.querydsl.domain.team.dao.TeamRepository;
+import study.querydsl.domain.team.domain.Team;
+import study.querydsl.domain.team.domain.TeamStats;
+import study.querydsl.domain.team.dto.response.TeamStatsDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static study.querydsl.domain.member.domain.Member.createMember;
+import static study.querydsl.domain.team.domain.Team.createTeam;
+
+@SpringBootTest
+@Transactional
+class TeamStatsRecorderTest {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamStatsRecorder teamStatsRecorder;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void maintainTeamStats() {
+        Team teamA = createTeam("teamA");
+        Team teamB = createTeam("teamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        Member member1 = createMember("member1", 10, teamA);
+        entityManager.persist(member1);
+        entityManager.persist(createMember("member2", 20, teamA));
+        entityManager.persist(createMember("member3", 30, teamB));
+
+        beforeCommit();
+
+        assertThat(teamRepository.findStats())
+                .extracting("teamName", "memberCount", "averageAge", "minAge", "maxAge")
+                .containsExactly(
+                        tuple("teamA", 2L, 15.0, 10, 20),
+                        tuple("teamB", 1L, 30.0, 30, 30));
+
+        // 삭제는 최소값을 되돌릴 수 없으므로 다시 계산된다.
+        entityManager.remove(entityManager.find(Member.class, member1.getId()));
+        entityManager.persist(createMember("member4", 40, entityManager.find(Team.class, teamB.getId())));
+
+        beforeCommit();
+
+        assertThat(teamRepository.findStats())
+                .extracting("teamName", "memberCount", "averageAge", "minAge", "maxAge")
+                .containsExactly(
+                        tuple("teamA", 1L, 20.0, 20, 20),
+                        tuple("teamB", 2L, 35.0, 30, 40));
+
+        // 벌크 연산
+        memberRepository.bulkAddAge(MemberSearchCondition.of(null, "teamB", null, null), 1, 1);
+
+        beforeCommit();
+
+        List<TeamStatsDto> stats = teamRepository.findStats();
+        assertThat(stats.get(1).minAge()).isEqualTo(31);
+        assertThat(stats.get(1).maxAge()).isEqualTo(41);
+    }
+
+    @Test
+    public void removeTeamStatsWithTeam() {
+        Team teamA = createTeam("teamA");
+        entityManager.persist(teamA);
+
+        beforeCommit();
+        assertThat(entityManager.find(TeamStats.class, teamA.getId())).isNotNull();
+
+        entityManager.remove(entityManager.find(Team.class, teamA.getId()));
+
+        beforeCommit();
+        assertThat(entityManager.find(TeamStats.class, teamA.getId())).isNull();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recomputeConcurrentlyWithoutStatsRow() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long teamId = transaction.execute(status -> {
+            Team team = createTeam("teamStatsRace");
+            entityManager.persist(team);
+            entityManager.persist(createMember("memberStatsRace", 10, team));
+            return team.getId();
+        });
+        // 통계 기능 도입 전 데이터처럼 통계 행이 없는 팀을 만든다.
+        transaction.executeWithoutResult(status -> entityManager
+                .createNativeQuery("delete from team_stats where team_id = ?")
+                .setParameter(1, teamId)
+                .executeUpdate());
+
+        int threads = 4;
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    transaction.executeWithoutResult(status -> teamStatsRecorder.recompute(List.of(teamId)));
+                    return null;
+                }));
+            }
+            // 잠글 행이 없어도 동시에 다시 계산하는 트랜잭션이 PK 위반으로 실패하지 않는다.
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            TeamStats stats = transaction.execute(status -> entityManager.find(TeamStats.class, teamId));
+            assertThat(stats.getMemberCount()).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+            transaction.executeWithoutResult(status -> {
+                entityManager.createQuery("delete from Member m where m.team.id = :teamId")
+                        .setParameter("teamId", teamId)
+                        .executeUpdate();
+                entityManager.remove(entityManager.find(Team.class, teamId));
+            });
+        }
+    }
+
+    /**
+     * 테스트 트랜잭션은 롤백되므로 커밋 직전 콜백만 직접 실행한다.
+     */
+    private void beforeCommit() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.beforeCommit(false));
+        entityManager.clear();
+    }
+}
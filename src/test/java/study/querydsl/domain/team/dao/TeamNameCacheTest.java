@@ -0,0 +1,75 @@
+package study.querydsl.domain.team.dao;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.team.domain.Team;
+import study.querydsl.global.cache.EntityWriteTracker;
+import study.querydsl.global.metrics.SqlStatementCounter;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.domain.team.domain.Team.createTeam;
+
+@SpringBootTest
+class TeamNameCacheTest {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    TeamNameCache teamNameCache;
+
+    @Autowired
+    EntityWriteTracker entityWriteTracker;
+
+    @Autowired
+    SqlStatementCounter sqlStatementCounter;
+
+    @Test
+    public void invalidateOnlyOnTeamWrites() {
+        teamNameCache.findTeamIds("teamA");
+
+        long before = sqlStatementCounter.current();
+        entityWriteTracker.inspect("update member m1_0 set age=(m1_0.age+cast(? as integer))");
+        teamNameCache.findTeamIds("teamA");
+        assertThat(sqlStatementCounter.current() - before).isZero();
+
+        entityWriteTracker.inspect("update team set name=? where team_id=?");
+        teamNameCache.findTeamIds("teamA");
+        assertThat(sqlStatementCounter.current() - before).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    public void seeUnflushedTeam() {
+        // 캐시를 미리 채워 둔다.
+        teamNameCache.findTeamIds("teamZ");
+
+        Team teamZ = createTeam("teamZ");
+        entityManager.persist(teamZ);
+
+        assertThat(teamNameCache.findTeamIds("teamZ")).containsExactly(teamZ.getId());
+    }
+
+    @Test
+    public void reloadAfterTtl() throws InterruptedException {
+        TeamNameCache expiringCache = new TeamNameCache(queryFactory, entityWriteTracker, Duration.ofMillis(50));
+        expiringCache.findTeamIds("teamA");
+
+        long before = sqlStatementCounter.current();
+        expiringCache.findTeamIds("teamA");
+        assertThat(sqlStatementCounter.current() - before).isZero();
+
+        Thread.sleep(100);
+        expiringCache.findTeamIds("teamA");
+        assertThat(sqlStatementCounter.current() - before).isEqualTo(1);
+    }
+}
@@ -0,0 +1,67 @@
+package study.querydsl.domain.team.dao;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.team.domain.Team;
+import study.querydsl.domain.team.dto.response.TeamWithMembersDto;
+import study.querydsl.global.metrics.SqlStatementCounter;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.domain.member.domain.Member.createMember;
+import static study.querydsl.domain.team.domain.Team.createTeam;
+
+@SpringBootTest
+@Transactional
+class TeamRepositoryTest {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    SqlStatementCounter sqlStatementCounter;
+
+    @Test
+    public void searchWithMembers() {
+        IntStream.range(0, 10).forEach(i -> {
+            Team team = createTeam("team" + i);
+            entityManager.persist(team);
+            IntStream.range(0, 3).forEach(j ->
+                    entityManager.persist(createMember("member" + i + "-" + j, j, team)));
+        });
+
+        // 초기화
+        entityManager.flush();
+        entityManager.clear();
+
+        long before = sqlStatementCounter.current();
+        Page<TeamWithMembersDto> smallPage = teamRepository.searchWithMembers(PageRequest.of(0, 2));
+        long smallPageStatements = sqlStatementCounter.current() - before;
+
+        before = sqlStatementCounter.current();
+        Page<TeamWithMembersDto> largePage = teamRepository.searchWithMembers(PageRequest.of(0, 8));
+        long largePageStatements = sqlStatementCounter.current() - before;
+
+        assertThat(smallPage.getContent())
+                .extracting("teamName")
+                .containsExactly("team0", "team1");
+        assertThat(smallPage.getContent().get(0).members())
+                .extracting("username")
+                .containsExactly("member0-0", "member0-1", "member0-2");
+        assertThat(largePage.getContent()).hasSize(8);
+        assertThat(largePage.getTotalElements()).isEqualTo(10);
+
+        // team 페이지 + member IN + count, 페이지 크기와 무관하게 3번
+        assertThat(smallPageStatements).isEqualTo(3);
+        assertThat(largePageStatements).isEqualTo(3);
+    }
+}
@@ -0,0 +1,30 @@
+package study.querydsl.global.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityVersionTest {
+
+    @Test
+    public void skipValidationWhileReplicaMayLag() {
+        EntityWriteTracker routingTracker = new EntityWriteTracker(true, Duration.ofMinutes(1));
+        EntityVersion entityVersion = new EntityVersion(routingTracker, true);
+        assertThat(entityVersion.canValidate()).isTrue();
+
+        // 쓰기 직후에는 replica 가 이전 결과를 돌려줄 수 있으므로 ETag 를 쓰지 않는다.
+        routingTracker.inspect("update member m1_0 set age=(m1_0.age+cast(? as integer))");
+        assertThat(entityVersion.canValidate()).isFalse();
+    }
+
+    @Test
+    public void validateRightAfterWriteWithoutRouting() {
+        EntityWriteTracker tracker = new EntityWriteTracker(false, Duration.ofMinutes(1));
+        EntityVersion entityVersion = new EntityVersion(tracker, true);
+
+        tracker.inspect("update member m1_0 set age=(m1_0.age+cast(? as integer))");
+        assertThat(entityVersion.canValidate()).isTrue();
+    }
+}
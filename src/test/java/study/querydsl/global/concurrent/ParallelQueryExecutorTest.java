@@ -0,0 +1,80 @@
+package study.querydsl.global.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ParallelQueryExecutorTest {
+
+    @Autowired
+    ParallelQueryExecutor parallelQueryExecutor;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void runsDetachedWithoutTransaction() {
+        AtomicReference<Thread> executedOn = new AtomicReference<>();
+        AtomicBoolean readOnly = new AtomicBoolean();
+
+        LongSupplier result = parallelQueryExecutor.submit(() -> {
+            executedOn.set(Thread.currentThread());
+            readOnly.set(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return 42L;
+        });
+
+        assertThat(result.getAsLong()).isEqualTo(42L);
+        assertThat(executedOn.get()).isNotSameAs(Thread.currentThread());
+        assertThat(readOnly).isTrue();
+    }
+
+    @Test
+    public void runsInlineInsideWriteTransaction() {
+        AtomicReference<Thread> executedOn = new AtomicReference<>();
+
+        Long result = new TransactionTemplate(transactionManager).execute(status ->
+                parallelQueryExecutor.submit(() -> {
+                    executedOn.set(Thread.currentThread());
+                    return 42L;
+                }).getAsLong());
+
+        assertThat(result).isEqualTo(42L);
+        assertThat(executedOn.get()).isSameAs(Thread.currentThread());
+    }
+
+    @Test
+    public void releasePermitWhenQueuedTaskIsCancelled() {
+        // 작업을 실행하지 않고 쌓아 두기만 하는 실행기.
+        List<Runnable> queued = new ArrayList<>();
+        AsyncTaskExecutor executor = queued::add;
+        ParallelQueryExecutor executorWithOnePermit =
+                new ParallelQueryExecutor(executor, transactionManager, true, 1);
+
+        LongSupplier result = executorWithOnePermit.submit(() -> 42L);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(result::getAsLong).isInstanceOf(IllegalStateException.class);
+        } finally {
+            Thread.interrupted();
+        }
+
+        // 취소된 작업의 허가가 반납되어 다음 쿼리도 별도 스레드로 넘어간다.
+        executorWithOnePermit.submit(() -> 42L);
+        assertThat(queued).hasSize(2);
+    }
+}
@@ -0,0 +1,80 @@
+package study.querydsl.global.deadline;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class QueryDeadlineTest {
+
+    QueryDeadline queryDeadline = new QueryDeadline();
+    Session session = mock(Session.class);
+    EntityManager entityManager = mock(EntityManager.class);
+
+    @AfterEach
+    void tearDown() {
+        Deadline.clear();
+        queryDeadline.destroy();
+    }
+
+    @Test
+    public void cancelAtDeadline() {
+        given(entityManager.unwrap(Session.class)).willReturn(session);
+        Deadline.set(Deadline.after(Duration.ofMillis(50)));
+
+        queryDeadline.execute(entityManager, () -> {
+            verify(session, timeout(1000)).cancelQuery();
+            return null;
+        });
+    }
+
+    @Test
+    public void doNotCancelAfterCompletion() throws InterruptedException {
+        given(entityManager.unwrap(Session.class)).willReturn(session);
+        Deadline.set(Deadline.after(Duration.ofMillis(50)));
+
+        queryDeadline.execute(entityManager, () -> "done");
+        Thread.sleep(150);
+
+        verify(session, never()).cancelQuery();
+    }
+
+    @Test
+    public void completionWaitsForRunningCancel() {
+        CountDownLatch cancelStarted = new CountDownLatch(1);
+        AtomicBoolean cancelFinished = new AtomicBoolean();
+        given(entityManager.unwrap(Session.class)).willReturn(session);
+        willAnswer(invocation -> {
+            cancelStarted.countDown();
+            Thread.sleep(200);
+            cancelFinished.set(true);
+            return null;
+        }).given(session).cancelQuery();
+        Deadline.set(Deadline.after(Duration.ofMillis(20)));
+
+        queryDeadline.execute(entityManager, () -> {
+            try {
+                cancelStarted.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "done";
+        });
+
+        // 실행이 끝났다고 돌아온 뒤에는 같은 세션의 다음 쿼리가 cancel 되지 않아야 한다.
+        assertThat(cancelFinished).isTrue();
+    }
+}
@@ -0,0 +1,82 @@
+package study.querydsl.global.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveLimiterTest {
+
+    private static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void growWhileLatencyStaysFlat() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 1, 50, 0.2, 1.5, 0.9);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(BASE_RTT, limit.limit(), false);
+        }
+
+        assertThat(limit.limit()).isEqualTo(50);
+    }
+
+    @Test
+    public void shrinkWhenLatencyRises() {
+        AdaptiveLimit limit = new AdaptiveLimit(40, 1, 50, 0.2, 1.5, 0.9);
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(BASE_RTT, limit.limit(), false);
+        }
+        int before = limit.limit();
+
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(BASE_RTT * 5, limit.limit(), false);
+        }
+
+        assertThat(limit.limit()).isLessThan(before / 2);
+    }
+
+    @Test
+    public void backOffOnDrop() {
+        AdaptiveLimit limit = new AdaptiveLimit(20, 2, 50, 0.2, 1.5, 0.9);
+
+        assertThat(limit.onSample(BASE_RTT, 20, true)).isEqualTo(18);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(BASE_RTT, 20, true);
+        }
+        assertThat(limit.limit()).isEqualTo(2);
+    }
+
+    @Test
+    public void doNotGrowWhenUnderused() {
+        AdaptiveLimit limit = new AdaptiveLimit(20, 1, 50, 0.2, 1.5, 0.9);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(BASE_RTT, 3, false);
+        }
+
+        assertThat(limit.limit()).isEqualTo(20);
+    }
+
+    @Test
+    public void rejectOverLimitWithoutQueueing() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(
+                "test", new AdaptiveLimit(2, 1, 10, 0.2, 1.5, 0.9), new SimpleMeterRegistry());
+
+        Optional<AdaptiveLimiter.Permit> first = limiter.tryAcquire();
+        Optional<AdaptiveLimiter.Permit> second = limiter.tryAcquire();
+        Optional<AdaptiveLimiter.Permit> third = limiter.tryAcquire();
+
+        assertThat(first).isPresent();
+        assertThat(second).isPresent();
+        assertThat(third).isEmpty();
+        assertThat(limiter.inflight()).isEqualTo(2);
+
+        first.get().onIgnore();
+        assertThat(limiter.inflight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isPresent();
+    }
+}
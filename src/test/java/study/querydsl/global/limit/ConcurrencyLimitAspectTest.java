@@ -0,0 +1,31 @@
+package study.querydsl.global.limit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import study.querydsl.global.deadline.Deadline;
+import study.querydsl.global.deadline.DeadlineExceededException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitAspectTest {
+
+    @Test
+    public void requestedDeadlineIsNotOverload() {
+        // 클라이언트가 짧은 예산을 보내 실패시킨 요청이 한도를 줄이면 안 된다.
+        assertThat(ConcurrencyLimitAspect.isOverload(
+                new DeadlineExceededException(Deadline.requestedAfter(Duration.ZERO), null))).isFalse();
+        assertThat(ConcurrencyLimitAspect.isOverload(new IllegalArgumentException())).isFalse();
+    }
+
+    @Test
+    public void serverSideTimeoutIsOverload() {
+        assertThat(ConcurrencyLimitAspect.isOverload(
+                new DeadlineExceededException(Deadline.after(Duration.ZERO), null))).isTrue();
+        assertThat(ConcurrencyLimitAspect.isOverload(new QueryTimeoutException("timeout"))).isTrue();
+        assertThat(ConcurrencyLimitAspect.isOverload(
+                new CannotGetJdbcConnectionException("pool exhausted"))).isTrue();
+    }
+}
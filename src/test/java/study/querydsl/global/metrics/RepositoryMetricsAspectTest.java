@@ -0,0 +1,58 @@
+package study.querydsl.global.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.member.dao.MemberRepository;
+import study.querydsl.domain.member.domain.Member;
+import study.querydsl.domain.member.dto.request.MemberSearchCondition;
+import study.querydsl.domain.team.domain.Team;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.domain.team.domain.Team.createTeam;
+
+@SpringBootTest
+@Transactional
+class RepositoryMetricsAspectTest {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void recordSearchMetrics() {
+        Team teamA = createTeam("teamA");
+        entityManager.persist(teamA);
+        entityManager.persist(Member.createMember("member1", 10, teamA));
+        entityManager.persist(Member.createMember("member2", 20, teamA));
+
+        memberRepository.search(MemberSearchCondition.of(null, "teamA", 15, null));
+
+        Timer latency = meterRegistry.find("member.repository.latency")
+                .tag("method", "MemberRepositoryImpl.search")
+                .tag("shape", "teamName+ageGoe")
+                .tag("outcome", "success")
+                .timer();
+        DistributionSummary rows = meterRegistry.find("member.repository.rows")
+                .tag("method", "MemberRepositoryImpl.search")
+                .summary();
+        DistributionSummary statements = meterRegistry.find("member.repository.statements")
+                .tag("method", "MemberRepositoryImpl.search")
+                .summary();
+
+        assertThat(latency).isNotNull();
+        assertThat(latency.count()).isGreaterThanOrEqualTo(1);
+        assertThat(rows.max()).isGreaterThanOrEqualTo(1);
+        assertThat(statements.max()).isGreaterThanOrEqualTo(1);
+    }
+}
@@ -0,0 +1,105 @@
+package study.querydsl.infra.config.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionTrackingDataSourceTest {
+
+    SimpleMeterRegistry meterRegistry;
+    ConnectionTracker connectionTracker;
+    ConnectionTrackingDataSource dataSource;
+
+    @BeforeEach
+    public void before() {
+        meterRegistry = new SimpleMeterRegistry();
+        connectionTracker = new ConnectionTracker(meterRegistry, Duration.ZERO, 0);
+        dataSource = new ConnectionTrackingDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:tracking;DB_CLOSE_DELAY=-1", "sa", ""),
+                connectionTracker);
+    }
+
+    @Test
+    public void recordAcquireAndUsageByCaller() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+            assertThat(meterRegistry.get("jdbc.connection.held").gauge().value()).isEqualTo(1);
+        }
+
+        String caller = "ConnectionTrackingDataSourceTest.recordAcquireAndUsageByCaller";
+        assertThat(meterRegistry.get("jdbc.connection.acquire").tag("caller", caller).timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("jdbc.connection.usage").tag("caller", caller).timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("jdbc.connection.held").gauge().value()).isZero();
+    }
+
+    @Test
+    public void reportLeakOnce() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+            connectionTracker.detectLeaks();
+            connectionTracker.detectLeaks();
+        }
+        connectionTracker.detectLeaks();
+
+        assertThat(meterRegistry.get("jdbc.connection.leak").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void captureStackOnlyAfterLeak() {
+        Object connection = new Object();
+        ConnectionTracker.Held first = connectionTracker.acquired(connection, 0);
+        assertThat(first.stack()).isEmpty();
+
+        connectionTracker.detectLeaks();
+        connectionTracker.released(connection, first);
+
+        // 누수가 보고된 caller 는 이후 획득부터 누수 위치를 찾을 수 있게 스택을 남긴다.
+        ConnectionTracker.Held second = connectionTracker.acquired(connection, 0);
+        assertThat(second.caller()).isEqualTo(first.caller());
+        assertThat(second.stack()).isNotEmpty();
+        connectionTracker.released(connection, second);
+    }
+
+    @Test
+    public void snapshotOwnerStackOnFirstLeak() throws InterruptedException {
+        Object connection = new Object();
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ConnectionTracker.Held[] holder = new ConnectionTracker.Held[1];
+
+        Thread owner = new Thread(() -> {
+            holder[0] = connectionTracker.acquired(connection, 0);
+            acquired.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            connectionTracker.released(connection, holder[0]);
+        });
+        owner.start();
+        acquired.await();
+
+        try {
+            // 획득 시점 스택은 없지만, 커넥션을 잡고 있는 스레드의 현재 위치를 보고에 남긴다.
+            assertThat(holder[0].stack()).isEmpty();
+            connectionTracker.detectLeaks();
+
+            assertThat(holder[0].reportedStack())
+                    .anyMatch(frame -> frame.getClassName().equals(ConnectionTrackingDataSourceTest.class.getName()));
+        } finally {
+            release.countDown();
+            owner.join();
+        }
+    }
+}
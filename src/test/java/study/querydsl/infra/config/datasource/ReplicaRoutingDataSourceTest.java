@@ -0,0 +1,84 @@
+package study.querydsl.infra.config.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    ReplicaRoutingDataSource routingDataSource;
+    TransactionTemplate readOnlyTransaction;
+    TransactionTemplate readWriteTransaction;
+    DataSource dataSource;
+
+    @BeforeEach
+    public void before() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", h2("replica0"));
+        replicas.put("replica-1", h2("replica1"));
+        routingDataSource = new ReplicaRoutingDataSource(h2("primary"), replicas);
+
+        dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Test
+    public void routeReadOnlyToReplicasRoundRobin() {
+        assertThat(databaseName(readOnlyTransaction)).isEqualTo("REPLICA0");
+        assertThat(databaseName(readOnlyTransaction)).isEqualTo("REPLICA1");
+        assertThat(databaseName(readOnlyTransaction)).isEqualTo("REPLICA0");
+        assertThat(databaseName(readWriteTransaction)).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    public void skipUnavailableReplica() {
+        routingDataSource.setAvailable("replica-0", false);
+
+        assertThat(databaseName(readOnlyTransaction)).isEqualTo("REPLICA1");
+        assertThat(databaseName(readOnlyTransaction)).isEqualTo("REPLICA1");
+
+        routingDataSource.setAvailable("replica-1", false);
+
+        assertThat(databaseName(readOnlyTransaction)).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    public void lagMonitorFallsBackToPrimary() {
+        new ReplicaLagMonitor(routingDataSource, Duration.ofSeconds(5), "select 10").check();
+
+        assertThat(databaseName(readOnlyTransaction)).isEqualTo("PRIMARY");
+
+        new ReplicaLagMonitor(routingDataSource, Duration.ofSeconds(5), "select 1").check();
+
+        assertThat(databaseName(readOnlyTransaction)).startsWith("REPLICA");
+    }
+
+    private String databaseName(TransactionTemplate transaction) {
+        return transaction.execute(status -> {
+            try (Connection connection = dataSource.getConnection()) {
+                return connection.getCatalog();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}